@@ -0,0 +1,96 @@
+package study.querydsl.benchmark;
+
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.HQLTemplates;
+import com.querydsl.jpa.JPAExpressions;
+import com.querydsl.jpa.JPQLSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import study.querydsl.entity.Member;
+import study.querydsl.repository.MemberRepository;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static study.querydsl.entity.QMember.member;
+
+/*
+ * 동적 검색(dynamicQuery_BooleanBuilder / dynamicQuery_WhereParam)을 매번 만드는 경우와
+ * 모양별로 직렬화된 JPQL을 재사용하는 경우(QueryShapeCache)의 요청당 비용
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class DynamicQueryBenchmark {
+
+    String usernameCond;
+    Integer ageCond;
+    MemberRepository memberRepository;
+
+    @Setup(Level.Trial)
+    public void setUp(QuerydslBenchmarkState state) {
+        memberRepository = state.getBean(MemberRepository.class);
+    }
+
+    @Setup(Level.Invocation)
+    public void nextCondition() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        usernameCond = random.nextBoolean() ? "member" + random.nextInt(QuerydslBenchmarkState.ROWS) : null;
+        ageCond = random.nextBoolean() ? random.nextInt(100) : null;
+    }
+
+    @Benchmark
+    public List<Member> booleanBuilder(QuerydslBenchmarkState state) {
+        BooleanBuilder builder = new BooleanBuilder();
+        if (usernameCond != null) {
+            builder.and(member.username.eq(usernameCond));
+        }
+        if (ageCond != null) {
+            builder.and(member.age.eq(ageCond));
+        }
+        return state.readOnly(queryFactory -> queryFactory
+                .selectFrom(member)
+                .where(builder)
+                .fetch());
+    }
+
+    @Benchmark
+    public List<Member> whereParam(QuerydslBenchmarkState state) {
+        return state.readOnly(queryFactory -> queryFactory
+                .selectFrom(member)
+                .where(usernameEq(usernameCond), ageEq(ageCond))
+                .fetch());
+    }
+
+    @Benchmark
+    public List<Member> shapeCache(QuerydslBenchmarkState state) {
+        return state.readOnly(queryFactory -> memberRepository.searchMembers(usernameCond, ageCond));
+    }
+
+    // DB 실행을 뺀 순수 CPU 비용: 표현식 트리 생성 + JPQL 직렬화
+    @Benchmark
+    public String buildAndSerializeOnly() {
+        JPQLSerializer serializer = new JPQLSerializer(HQLTemplates.DEFAULT);
+        serializer.serialize(JPAExpressions
+                .selectFrom(member)
+                .where(usernameEq(usernameCond), ageEq(ageCond))
+                .getMetadata(), false, null);
+        return serializer.toString();
+    }
+
+    private BooleanExpression usernameEq(String usernameCond) {
+        return usernameCond != null ? member.username.eq(usernameCond) : null;
+    }
+
+    private BooleanExpression ageEq(Integer ageCond) {
+        return ageCond != null ? member.age.eq(ageCond) : null;
+    }
+}
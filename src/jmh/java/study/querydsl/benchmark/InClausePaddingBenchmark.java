@@ -0,0 +1,98 @@
+package study.querydsl.benchmark;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.MemberIngestRow;
+import study.querydsl.entity.Member;
+import study.querydsl.service.MemberBulkIngestService;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static study.querydsl.entity.QMember.member;
+
+/*
+ * 길이가 제각각인 member.id.in(...) 조회 (subQueryIn, 검색 API)
+ * in_clause_parameter_padding 이 꺼져 있으면 리스트 길이마다 다른 SQL(PreparedStatement)이 만들어진다.
+ * 트라이얼이 끝나면 DB 가 본 서로 다른 in 절 SQL 수와 Hibernate 플랜 캐시 hit/miss 를 출력한다.
+ *
+ * ./gradlew jmh -PjmhIncludes=InClausePaddingBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class InClausePaddingBenchmark {
+
+    static final int ROWS = 1_000;
+    static final int MAX_IN_SIZE = 200;
+
+    @Param({"true", "false"})
+    boolean padding;
+
+    ConfigurableApplicationContext context;
+    JPAQueryFactory queryFactory;
+    TransactionTemplate readOnlyTx;
+    JdbcTemplate jdbcTemplate;
+    Statistics statistics;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = QuerydslBenchmarkState.start("jmh-in-" + padding,
+                "spring.jpa.properties.hibernate.query.in_clause_parameter_padding=" + padding,
+                "spring.jpa.properties.hibernate.generate_statistics=true"); // 플랜 캐시 hit/miss
+        queryFactory = context.getBean(JPAQueryFactory.class);
+        readOnlyTx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTx.setReadOnly(true);
+        jdbcTemplate = new JdbcTemplate(context.getBean(DataSource.class));
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactoryImplementor.class).getStatistics();
+
+        new TransactionTemplate(context.getBean(PlatformTransactionManager.class))
+                .executeWithoutResult(status -> context.getBean(MemberBulkIngestService.class)
+                        .ingest(IntStream.range(0, ROWS)
+                                .mapToObj(i -> new MemberIngestRow("member" + i, i % 100, "team" + i % 10))));
+
+        // H2 가 실행한 SQL 문자열별 통계 (INFORMATION_SCHEMA.QUERY_STATISTICS)
+        jdbcTemplate.execute("SET QUERY_STATISTICS_MAX_ENTRIES 10000");
+        jdbcTemplate.execute("SET QUERY_STATISTICS TRUE");
+        statistics.clear();
+    }
+
+    @Benchmark
+    public List<Member> randomSizeIn() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Long> ids = random.longs(random.nextInt(2, MAX_IN_SIZE + 1), 1, ROWS * 2L).boxed().toList();
+        return readOnlyTx.execute(status -> queryFactory
+                .selectFrom(member)
+                .where(member.id.in(ids))
+                .fetch());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Integer distinctSql = jdbcTemplate.queryForObject(
+                "select count(*) from information_schema.query_statistics where lower(sql_statement) like '%.member_id in (%'",
+                Integer.class);
+        System.out.printf("%npadding=%s distinct in-clause SQL=%d, plan cache hit=%d miss=%d%n",
+                padding, distinctSql, statistics.getQueryPlanCacheHitCount(), statistics.getQueryPlanCacheMissCount());
+        context.close();
+    }
+}
@@ -0,0 +1,126 @@
+package study.querydsl.benchmark;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.ExpressionUtils;
+import com.querydsl.core.types.Projections;
+import com.querydsl.jpa.JPAExpressions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import study.querydsl.dto.MemberDto;
+import study.querydsl.dto.QMemberDto;
+import study.querydsl.dto.UserDto;
+import study.querydsl.entity.QMember;
+import study.querydsl.repository.support.CompiledProjections;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static study.querydsl.entity.QMember.member;
+
+/*
+ * DTO 프로젝션 방식별 비용
+ * compiled*: CompiledProjections (행마다 리플렉션 대신 미리 만든 람다/MethodHandle)
+ * @OperationsPerInvocation(ROWS) 이므로 점수는 "초당 행 수", gc.alloc.rate.norm 은 "행당 할당 바이트"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(QuerydslBenchmarkState.ROWS)
+public class ProjectionBenchmark {
+
+    @Benchmark
+    public List<Tuple> tuple(QuerydslBenchmarkState state) {
+        return state.readOnly(queryFactory -> queryFactory
+                .select(member.username, member.age)
+                .from(member)
+                .fetch());
+    }
+
+    @Benchmark
+    public List<MemberDto> bean(QuerydslBenchmarkState state) {
+        return state.readOnly(queryFactory -> queryFactory
+                .select(Projections.bean(MemberDto.class, member.username, member.age))
+                .from(member)
+                .fetch());
+    }
+
+    @Benchmark
+    public List<MemberDto> fields(QuerydslBenchmarkState state) {
+        return state.readOnly(queryFactory -> queryFactory
+                .select(Projections.fields(MemberDto.class, member.username, member.age))
+                .from(member)
+                .fetch());
+    }
+
+    @Benchmark
+    public List<MemberDto> constructor(QuerydslBenchmarkState state) {
+        return state.readOnly(queryFactory -> queryFactory
+                .select(Projections.constructor(MemberDto.class, member.username, member.age))
+                .from(member)
+                .fetch());
+    }
+
+    @Benchmark
+    public List<MemberDto> queryProjection(QuerydslBenchmarkState state) {
+        return state.readOnly(queryFactory -> queryFactory
+                .select(new QMemberDto(member.username, member.age))
+                .from(member)
+                .fetch());
+    }
+
+    @Benchmark
+    public List<MemberDto> compiledBean(QuerydslBenchmarkState state) {
+        return state.readOnly(queryFactory -> queryFactory
+                .select(CompiledProjections.bean(MemberDto.class, member.username, member.age))
+                .from(member)
+                .fetch());
+    }
+
+    @Benchmark
+    public List<MemberDto> compiledFields(QuerydslBenchmarkState state) {
+        return state.readOnly(queryFactory -> queryFactory
+                .select(CompiledProjections.fields(MemberDto.class, member.username, member.age))
+                .from(member)
+                .fetch());
+    }
+
+    @Benchmark
+    public List<MemberDto> compiledConstructor(QuerydslBenchmarkState state) {
+        return state.readOnly(queryFactory -> queryFactory
+                .select(CompiledProjections.constructor(MemberDto.class, member.username, member.age))
+                .from(member)
+                .fetch());
+    }
+
+    @Benchmark
+    public List<UserDto> fieldsWithAlias(QuerydslBenchmarkState state) {
+        return state.readOnly(queryFactory -> queryFactory
+                .select(Projections.fields(UserDto.class, member.username.as("name"), member.age))
+                .from(member)
+                .fetch());
+    }
+
+    @Benchmark
+    public List<UserDto> compiledFieldsWithAlias(QuerydslBenchmarkState state) {
+        return state.readOnly(queryFactory -> queryFactory
+                .select(CompiledProjections.fields(UserDto.class, member.username.as("name"), member.age))
+                .from(member)
+                .fetch());
+    }
+
+    // findUserDto2: 별칭 + select 절 서브쿼리
+    @Benchmark
+    public List<UserDto> fieldsWithSubQuery(QuerydslBenchmarkState state) {
+        QMember memberSub = new QMember("memberSub");
+        return state.readOnly(queryFactory -> queryFactory
+                .select(Projections.fields(UserDto.class,
+                        member.username.as("name"),
+                        ExpressionUtils.as(JPAExpressions
+                                .select(memberSub.age.max())
+                                .from(memberSub), "age")))
+                .from(member)
+                .fetch());
+    }
+}
@@ -0,0 +1,81 @@
+package study.querydsl.benchmark;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.QuerydslApplication;
+import study.querydsl.dto.MemberIngestRow;
+import study.querydsl.service.MemberBulkIngestService;
+
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/*
+ * 벤치마크 공통 상태
+ * 메모리 H2 로 애플리케이션 컨텍스트를 띄우고 ROWS 건의 회원을 적재한다.
+ */
+@State(Scope.Benchmark)
+public class QuerydslBenchmarkState {
+
+    public static final int ROWS = 10_000;
+    public static final int TEAMS = 10;
+
+    ConfigurableApplicationContext context;
+    JPAQueryFactory queryFactory;
+    TransactionTemplate readOnlyTx;
+    TransactionTemplate readWriteTx;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = start("jmh");
+
+        queryFactory = context.getBean(JPAQueryFactory.class);
+        readOnlyTx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTx.setReadOnly(true);
+        readWriteTx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        readWriteTx.executeWithoutResult(status -> context.getBean(MemberBulkIngestService.class)
+                .ingest(IntStream.range(0, ROWS)
+                        .mapToObj(i -> new MemberIngestRow("member" + i, i % 100, "team" + i % TEAMS))));
+    }
+
+    // 벤치마크마다 다른 설정이 필요하면 별도 메모리 DB 로 띄운다.
+    static ConfigurableApplicationContext start(String database, String... properties) {
+        return new SpringApplicationBuilder(QuerydslApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1",
+                        "spring.jpa.properties.hibernate.format_sql=false",
+                        "spring.jpa.properties.hibernate.use_sql_comments=false",
+                        "logging.level.org.hibernate.SQL=info",
+                        "decorator.datasource.p6spy.enable-logging=false")
+                .properties(properties)
+                .run();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    public <T> T readOnly(Function<JPAQueryFactory, T> query) {
+        return readOnlyTx.execute(status -> query.apply(queryFactory));
+    }
+
+    // 커밋 시 dirty checking + flush 비용까지 포함된다.
+    public <T> T readWrite(Function<JPAQueryFactory, T> query) {
+        return readWriteTx.execute(status -> query.apply(queryFactory));
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+}
@@ -0,0 +1,76 @@
+package study.querydsl.benchmark;
+
+import com.querydsl.jpa.JPAExpressions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import study.querydsl.dto.MemberDto;
+import study.querydsl.dto.QMemberDto;
+import study.querydsl.entity.Member;
+import study.querydsl.repository.support.ReadOnlyQueries;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static study.querydsl.entity.QMember.member;
+
+/*
+ * 대량 Member 조회 시 읽기/쓰기 트랜잭션 vs 조회 전용 모드
+ * 점수는 초당 행 수, gc.alloc.rate.norm 은 행당 할당 바이트 (스냅샷 유무 차이)
+ * readWrite 는 커밋 시 전체 엔티티 dirty checking(flush) 시간까지 포함한다.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(QuerydslBenchmarkState.ROWS)
+@State(Scope.Thread)
+public class ReadOnlyQueryBenchmark {
+
+    ReadOnlyQueries readOnlyQueries;
+
+    @Setup(Level.Trial)
+    public void setUp(QuerydslBenchmarkState state) {
+        readOnlyQueries = state.getBean(ReadOnlyQueries.class);
+    }
+
+    @Benchmark
+    public List<Member> readWriteTransaction(QuerydslBenchmarkState state) {
+        return state.readWrite(queryFactory -> queryFactory
+                .selectFrom(member)
+                .fetch());
+    }
+
+    @Benchmark
+    public List<Member> readOnlyHint(QuerydslBenchmarkState state) {
+        return state.readWrite(queryFactory -> ReadOnlyQueries.readOnly(queryFactory
+                        .selectFrom(member))
+                .fetch());
+    }
+
+    @Benchmark
+    public List<Member> readOnlyTransaction(QuerydslBenchmarkState state) {
+        return state.readOnly(queryFactory -> queryFactory
+                .selectFrom(member)
+                .fetch());
+    }
+
+    @Benchmark
+    public List<MemberDto> dtoInReadWriteTransaction(QuerydslBenchmarkState state) {
+        return state.readWrite(queryFactory -> queryFactory
+                .select(new QMemberDto(member.username, member.age))
+                .from(member)
+                .fetch());
+    }
+
+    @Benchmark
+    public List<MemberDto> dtoStateless() {
+        return readOnlyQueries.fetchStateless(JPAExpressions
+                .select(new QMemberDto(member.username, member.age))
+                .from(member));
+    }
+}
@@ -0,0 +1,67 @@
+package study.querydsl.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import study.querydsl.entity.Member;
+import study.querydsl.repository.MemberRepository;
+import study.querydsl.repository.support.UsernameIndex;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static study.querydsl.entity.QMember.member;
+
+/*
+ * username 부분 검색: lower(username) like '%term%' (전체 스캔) vs UsernameIndex -> member.id.in(...)
+ * 검색어는 "member" + i 의 숫자 부분 3~4 자리라 몇 건에서 수십 건이 맞는다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class UsernameSearchBenchmark {
+
+    String term;
+    MemberRepository memberRepository;
+    UsernameIndex usernameIndex;
+
+    @Setup(Level.Trial)
+    public void setUp(QuerydslBenchmarkState state) {
+        memberRepository = state.getBean(MemberRepository.class);
+        usernameIndex = state.getBean(UsernameIndex.class);
+        usernameIndex.invalidate();
+        usernameIndex.rebuild();
+    }
+
+    @Setup(Level.Invocation)
+    public void nextTerm() {
+        term = String.valueOf(ThreadLocalRandom.current().nextInt(100, QuerydslBenchmarkState.ROWS));
+    }
+
+    @Benchmark
+    public List<Member> like(QuerydslBenchmarkState state) {
+        return state.readOnly(queryFactory -> queryFactory
+                .selectFrom(member)
+                .where(member.username.containsIgnoreCase(term))
+                .orderBy(member.id.asc())
+                .fetch());
+    }
+
+    @Benchmark
+    public List<Member> usernameIndex(QuerydslBenchmarkState state) {
+        return state.readOnly(queryFactory -> memberRepository.searchByUsernameContaining(term));
+    }
+
+    // DB 조회를 뺀 인덱스 조회 비용
+    @Benchmark
+    public Optional<List<Long>> indexLookupOnly() {
+        return usernameIndex.find(term);
+    }
+}
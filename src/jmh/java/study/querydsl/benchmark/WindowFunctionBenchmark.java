@@ -0,0 +1,95 @@
+package study.querydsl.benchmark;
+
+import com.querydsl.jpa.JPAExpressions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import study.querydsl.dto.MemberDto;
+import study.querydsl.dto.QMemberDto;
+import study.querydsl.entity.QMember;
+import study.querydsl.repository.MemberWindowRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+/*
+ * JPQL 서브쿼리 / 팀마다 쿼리(N+1) vs querydsl-sql 윈도우 함수
+ * 점수는 쿼리(결과 목록) 1회 기준 시간
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+public class WindowFunctionBenchmark {
+
+    static final int TOP_N = 3;
+
+    MemberWindowRepository memberWindowRepository;
+
+    @Setup(Level.Trial)
+    public void setUp(QuerydslBenchmarkState state) {
+        memberWindowRepository = state.getBean(MemberWindowRepository.class);
+    }
+
+    @Benchmark
+    public List<MemberDto> oldestSubQuery(QuerydslBenchmarkState state) {
+        QMember memberSub = new QMember("memberSub");
+        return state.readOnly(queryFactory -> queryFactory
+                .select(new QMemberDto(member.username, member.age))
+                .from(member)
+                .where(member.age.eq(JPAExpressions.select(memberSub.age.max()).from(memberSub)))
+                .fetch());
+    }
+
+    @Benchmark
+    public List<MemberDto> oldestWindow() {
+        return memberWindowRepository.findOldest();
+    }
+
+    @Benchmark
+    public List<MemberDto> ageGoeAverageSubQuery(QuerydslBenchmarkState state) {
+        QMember memberSub = new QMember("memberSub");
+        return state.readOnly(queryFactory -> queryFactory
+                .select(new QMemberDto(member.username, member.age))
+                .from(member)
+                .where(member.age.goe(JPAExpressions.select(memberSub.age.avg()).from(memberSub)))
+                .fetch());
+    }
+
+    @Benchmark
+    public List<MemberDto> ageGoeAverageWindow() {
+        return memberWindowRepository.findAgeGoeAverage();
+    }
+
+    // 팀 목록 조회 + 팀마다 상위 N 명 조회 (1 + 팀 수 만큼 쿼리)
+    @Benchmark
+    public List<MemberDto> topPerTeamNPlusOne(QuerydslBenchmarkState state) {
+        return state.readOnly(queryFactory -> {
+            List<MemberDto> result = new ArrayList<>();
+            for (Long teamId : queryFactory.select(team.id).from(team).orderBy(team.id.asc()).fetch()) {
+                result.addAll(queryFactory
+                        .select(new QMemberDto(member.username, member.age))
+                        .from(member)
+                        .where(member.team.id.eq(teamId))
+                        .orderBy(member.age.desc())
+                        .limit(TOP_N)
+                        .fetch());
+            }
+            return result;
+        });
+    }
+
+    // rank() 라 동순위가 모두 포함된다. (limit 보다 결과가 많을 수 있음)
+    @Benchmark
+    public List<MemberDto> topPerTeamWindow() {
+        return memberWindowRepository.findTopByAgePerTeam(TOP_N);
+    }
+}
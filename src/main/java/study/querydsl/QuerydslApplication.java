@@ -1,8 +1,28 @@
 package study.querydsl;
 
+import com.querydsl.jpa.HQLTemplates;
+import com.querydsl.jpa.JPQLTemplates;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.querydsl.sql.Configuration;
+import com.querydsl.sql.H2Templates;
+import com.querydsl.sql.SQLQueryFactory;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.LazyInitializationExcludeFilter;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import study.querydsl.datasource.RoutingAotGuard;
+import study.querydsl.monitoring.InstrumentedJPAQueryFactory;
+import study.querydsl.monitoring.QueryMetrics;
+import study.querydsl.repository.support.EventPublishingJPAQueryFactory;
+import study.querydsl.sql.TransactionalConnectionSupplier;
 
+import javax.sql.DataSource;
+
+@EnableCaching
 @SpringBootApplication
 public class QuerydslApplication {
 
@@ -10,4 +30,33 @@ public class QuerydslApplication {
 		SpringApplication.run(QuerydslApplication.class, args);
 	}
 
+	// lazy-initialization(fast-startup 프로필)에서도 JPA 는 기동할 때 초기화해서 첫 요청이 느려지지 않게 한다.
+	// RoutingAotGuard 는 AOT 실행에서 무시되는 라우팅 설정을 기동할 때 확인한다.
+	@Bean
+	static LazyInitializationExcludeFilter eagerPersistenceUnit() {
+		return LazyInitializationExcludeFilter.forBeanTypes(EntityManagerFactory.class, RoutingAotGuard.class);
+	}
+
+	// queryFactory 와 직렬화된 JPQL 캐시(QueryShapeCache)가 같은 템플릿을 쓴다. (hibernate)
+	@Bean
+	JPQLTemplates jpqlTemplates() {
+		return HQLTemplates.DEFAULT;
+	}
+
+	@Bean
+	JPAQueryFactory jpaQueryFactory(EntityManager em, JPQLTemplates templates, QueryMetrics queryMetrics,
+									ApplicationEventPublisher eventPublisher) {
+		// 프록시 EntityManager가 주입되므로 트랜잭션 단위로 바인딩됨 -> 동시성 문제 없음
+		if (queryMetrics.isEnabled()) {
+			return new InstrumentedJPAQueryFactory(em, templates, queryMetrics, eventPublisher); // 쿼리 모양별 실행 시간, slow query 로그
+		}
+		return new EventPublishingJPAQueryFactory(em, templates, eventPublisher); // update/delete 후 BulkOperationEvent 는 메트릭과 상관없이 발행
+	}
+
+	@Bean
+	SQLQueryFactory sqlQueryFactory(DataSource dataSource) {
+		// 윈도우 함수 등 네이티브 SQL 용, JPA 와 같은 트랜잭션(커넥션)을 사용한다. DB 는 H2 뿐이라 H2Templates 고정
+		return new SQLQueryFactory(new Configuration(H2Templates.builder().build()), new TransactionalConnectionSupplier(dataSource));
+	}
+
 }
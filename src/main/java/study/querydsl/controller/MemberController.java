@@ -0,0 +1,27 @@
+package study.querydsl.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import study.querydsl.service.MemberExportService;
+
+@RestController
+@RequiredArgsConstructor
+public class MemberController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final MemberExportService memberExportService;
+
+    @GetMapping("/v1/members/export")
+    public ResponseEntity<StreamingResponseBody> exportMembers() {
+        // 응답 스트림에 바로 쓰기 때문에 전체 결과를 메모리에 모으지 않는다.
+        StreamingResponseBody body = memberExportService::exportNdjson;
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .body(body);
+    }
+}
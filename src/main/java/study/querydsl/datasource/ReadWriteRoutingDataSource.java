@@ -0,0 +1,57 @@
+package study.querydsl.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/*
+ * 읽기 전용 트랜잭션(@Transactional(readOnly = true))은 replica, 나머지(쓰기, 벌크 update/delete, 트랜잭션 밖)는 primary
+ * replica 가 지연되거나 읽을 수 없으면(ReplicaLagMonitor) 읽기도 primary 로 보낸다.
+ *
+ * 트랜잭션 매니저는 readOnly 표시를 하기 전에 커넥션을 얻으므로 반드시 LazyConnectionDataSourceProxy 로 감싸서
+ * 첫 SQL 을 실행할 때 커넥션을 고르게 한다. (RoutingDataSourceConfig)
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Target { PRIMARY, REPLICA }
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final Counter primaryConnections;
+    private final Counter replicaConnections;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor,
+                                      MeterRegistry meterRegistry) {
+        this.lagMonitor = lagMonitor;
+        this.primaryConnections = connections(meterRegistry, Target.PRIMARY);
+        this.replicaConnections = connections(meterRegistry, Target.REPLICA);
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    // 지금 스레드의 트랜잭션이 커넥션을 얻으면 replica 로 가는지
+    public boolean isReplicaRead() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && lagMonitor.isReplicaAvailable();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (isReplicaRead()) {
+            replicaConnections.increment();
+            return Target.REPLICA;
+        }
+        primaryConnections.increment();
+        return Target.PRIMARY;
+    }
+
+    private static Counter connections(MeterRegistry meterRegistry, Target target) {
+        return Counter.builder("querydsl.routing.connections")
+                .description("라우팅된 커넥션 수")
+                .tag("target", target.name().toLowerCase())
+                .register(meterRegistry);
+    }
+}
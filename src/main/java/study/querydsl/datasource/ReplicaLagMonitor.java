@@ -0,0 +1,127 @@
+package study.querydsl.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * replica 복제 지연 확인 (heartbeat 테이블)
+ *
+ * 1. primary 의 replica_heartbeat 에 현재 시각(epoch millis)을 기록한다.
+ * 2. replica 에서 같은 행을 읽어서 "지금 - 복제된 시각" 을 지연으로 본다.
+ * 3. 지연이 maxLag 보다 크거나 replica 를 읽을 수 없으면 replica 를 쓰지 않는다. (읽기도 primary 로)
+ *
+ * 처음 확인하기 전에는 사용하지 않는다.
+ * heartbeat 테이블은 start() 에서 한 번만 만든다. (fast-startup 프로파일은 db/schema-h2.sql 로 미리 만든다.)
+ */
+@Slf4j
+public class ReplicaLagMonitor implements AutoCloseable {
+
+    static final String CREATE_TABLE = "create table if not exists replica_heartbeat (id int primary key, beat_at bigint not null)";
+    static final String BEAT = "merge into replica_heartbeat key(id) values (1, ?)";
+    static final String READ = "select beat_at from replica_heartbeat where id = 1";
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final Duration maxLag;
+    private final Clock clock;
+    private ScheduledExecutorService scheduler;
+
+    private volatile Duration lag; // null 이면 알 수 없음
+    private volatile boolean replicaAvailable;
+
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, Duration maxLag, Clock clock) {
+        this.primary = primary;
+        this.replica = replica;
+        this.maxLag = maxLag;
+        this.clock = clock;
+    }
+
+    public void start(Duration interval) {
+        try {
+            createTable();
+        } catch (SQLException e) {
+            log.warn("failed to create replica heartbeat table on primary: {}", e.getMessage());
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::check, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void check() {
+        try {
+            beat();
+        } catch (SQLException e) {
+            log.warn("failed to write replica heartbeat on primary: {}", e.getMessage());
+        }
+
+        Duration current = null;
+        try {
+            current = readLag();
+        } catch (SQLException e) {
+            log.debug("failed to read replica heartbeat", e);
+        }
+
+        boolean available = current != null && current.compareTo(maxLag) <= 0;
+        if (available != replicaAvailable) {
+            log.warn("replica {} (lag = {}, max lag = {})", available ? "available" : "unavailable, reading from primary",
+                    current, maxLag);
+        }
+        lag = current;
+        replicaAvailable = available;
+    }
+
+    public boolean isReplicaAvailable() {
+        return replicaAvailable;
+    }
+
+    public Duration getLag() {
+        return lag;
+    }
+
+    private void createTable() throws SQLException {
+        try (Connection connection = primary.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(CREATE_TABLE);
+        }
+    }
+
+    private void beat() throws SQLException {
+        try (Connection connection = primary.getConnection();
+             PreparedStatement statement = connection.prepareStatement(BEAT)) {
+            statement.setLong(1, clock.millis());
+            statement.executeUpdate();
+        }
+    }
+
+    private Duration readLag() throws SQLException {
+        try (Connection connection = replica.getConnection();
+             PreparedStatement statement = connection.prepareStatement(READ);
+             ResultSet resultSet = statement.executeQuery()) {
+            if (!resultSet.next()) {
+                return null; // 아직 복제되지 않음
+            }
+            return Duration.ofMillis(Math.max(0, clock.millis() - resultSet.getLong(1)));
+        }
+    }
+
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package study.querydsl.datasource;
+
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/*
+ * AOT 로 실행하면(-Dspring.aot.enabled=true) @ConditionalOnProperty 는 빌드 시점(processAot, fast-startup 프로필)에 평가된다.
+ * 실행할 때 querydsl.routing.enabled=true 를 줘도 RoutingDataSourceConfig 가 등록되지 않고 primary 만 쓰게 되므로
+ * 조용히 넘어가지 않고 기동을 멈춘다. (lazy-initialization 에서도 기동할 때 만들어지도록 QuerydslApplication 에서 제외)
+ */
+@Component
+public class RoutingAotGuard {
+
+    public RoutingAotGuard(Environment environment, ObjectProvider<RoutingDataSourceConfig> routingConfig) {
+        if (AotDetector.useGeneratedArtifacts()
+                && environment.getProperty("querydsl.routing.enabled", Boolean.class, false)
+                && routingConfig.getIfAvailable() == null) {
+            throw new IllegalStateException("querydsl.routing.enabled=true is ignored by the AOT-processed context; "
+                    + "run without -Dspring.aot.enabled=true or enable routing when running processAot");
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package study.querydsl.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+
+/*
+ * querydsl.routing.enabled=true 일 때 spring.datasource(primary) + querydsl.routing.replica 로 라우팅 DataSource 를 만든다.
+ *
+ * primary/replica 커넥션 풀은 빈으로 등록하지 않는다.
+ * 빈으로 두면 p6spy 가 각각 감싸서 SQL 이 두 번 기록되고, JPA 가 사용할 DataSource 도 모호해진다.
+ * 대신 풀 설정은 직접 바인딩한다. primary: spring.datasource.hikari.*, replica: querydsl.routing.replica.hikari.*
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "querydsl.routing", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(RoutingDataSourceProperties.class)
+public class RoutingDataSourceConfig implements DisposableBean {
+
+    private HikariDataSource primary;
+    private HikariDataSource replica;
+    private ReplicaLagMonitor lagMonitor;
+    private ReadWriteRoutingDataSource routingDataSource;
+
+    @Bean
+    @Primary
+    DataSource dataSource(DataSourceProperties dataSourceProperties, RoutingDataSourceProperties properties,
+                          MeterRegistry meterRegistry, Environment environment) {
+        Binder binder = Binder.get(environment);
+        primary = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("primary");
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+
+        RoutingDataSourceProperties.Replica replicaProperties = properties.getReplica();
+        replica = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(replicaProperties.getUrl())
+                .username(replicaProperties.getUsername())
+                .password(replicaProperties.getPassword())
+                .build();
+        replica.setPoolName("replica");
+        replica.setMaximumPoolSize(replicaProperties.getMaximumPoolSize());
+        binder.bind("querydsl.routing.replica.hikari", Bindable.ofInstance(replica));
+        replica.setReadOnly(true);
+
+        lagMonitor = new ReplicaLagMonitor(primary, replica, properties.getMaxLag(), Clock.systemUTC());
+        lagMonitor.start(properties.getLagCheckInterval());
+        Gauge.builder("querydsl.routing.replica.lag", lagMonitor, monitor -> {
+                    Duration lag = monitor.getLag();
+                    return lag == null ? Double.NaN : lag.toMillis() / 1000.0;
+                })
+                .description("replica 복제 지연 (heartbeat 기준)")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("querydsl.routing.replica.available", lagMonitor, monitor -> monitor.isReplicaAvailable() ? 1 : 0)
+                .description("1 이면 읽기 전용 트랜잭션을 replica 로 보낸다.")
+                .register(meterRegistry);
+
+        // 첫 SQL 실행 시점까지 커넥션 선택을 미룬다. (그때는 트랜잭션의 readOnly 여부를 알 수 있다.)
+        routingDataSource = new ReadWriteRoutingDataSource(primary, replica, lagMonitor, meterRegistry);
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    // 지금 스레드의 트랜잭션이 replica 에서 읽는지 (캐시를 replica 값으로 채우지 않으려는 곳에서 쓴다.)
+    public boolean isReplicaRead() {
+        return routingDataSource != null && routingDataSource.isReplicaRead();
+    }
+
+    // 테스트용: replica 에 직접 데이터를 넣거나(복제 흉내) 지연을 바로 확인한다.
+    DataSource getReplica() {
+        return replica;
+    }
+
+    ReplicaLagMonitor getLagMonitor() {
+        return lagMonitor;
+    }
+
+    @Override
+    public void destroy() {
+        if (lagMonitor != null) {
+            lagMonitor.close();
+        }
+        if (replica != null) {
+            replica.close();
+        }
+        if (primary != null) {
+            primary.close();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package study.querydsl.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter @Setter
+@ConfigurationProperties("querydsl.routing")
+public class RoutingDataSourceProperties {
+
+    private boolean enabled = false; // 기본은 spring.datasource 하나만 사용
+    private final Replica replica = new Replica();
+    private Duration maxLag = Duration.ofSeconds(5); // 복제 지연이 이보다 크면 읽기도 primary 로
+    private Duration lagCheckInterval = Duration.ofSeconds(1); // heartbeat 기록/확인 주기
+
+    @Getter @Setter
+    public static class Replica {
+
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10; // 나머지 풀 설정은 querydsl.routing.replica.hikari.* (spring.datasource.hikari 와 같은 키)
+    }
+}
@@ -0,0 +1,21 @@
+package study.querydsl.dto;
+
+import lombok.Data;
+
+@Data
+public class MemberAgeSummaryDto {
+
+    private long count;
+    private long sum;
+    private double avg;
+    private int max;
+    private int min;
+
+    public MemberAgeSummaryDto(long count, long sum, double avg, int max, int min) {
+        this.count = count;
+        this.sum = sum;
+        this.avg = avg;
+        this.max = max;
+        this.min = min;
+    }
+}
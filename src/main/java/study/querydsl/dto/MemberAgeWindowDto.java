@@ -0,0 +1,23 @@
+package study.querydsl.dto;
+
+import lombok.Data;
+
+@Data
+public class MemberAgeWindowDto {
+
+    private String username;
+    private int age;
+    private String teamName;
+    private long ageRank; // 팀 내 나이 순위 (동순위는 같은 값)
+    private double runningAvgAge; // 팀 내 나이 내림차순으로 현재 행까지의 평균
+    private double teamAvgAge;
+
+    public MemberAgeWindowDto(String username, int age, String teamName, long ageRank, double runningAvgAge, double teamAvgAge) {
+        this.username = username;
+        this.age = age;
+        this.teamName = teamName;
+        this.ageRank = ageRank;
+        this.runningAvgAge = runningAvgAge;
+        this.teamAvgAge = teamAvgAge;
+    }
+}
@@ -0,0 +1,30 @@
+package study.querydsl.dto;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.nio.file.Path;
+import java.util.List;
+
+@Getter
+@ToString
+public class MemberExportResult {
+
+    private final long rows;
+    private final List<Path> files; // 샤드 파일(member_id 범위 순) 또는 병합 파일 하나
+    private final int workers;
+    private final int partitions;
+    private final long elapsedNanos;
+
+    public MemberExportResult(long rows, List<Path> files, int workers, int partitions, long elapsedNanos) {
+        this.rows = rows;
+        this.files = List.copyOf(files);
+        this.workers = workers;
+        this.partitions = partitions;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public double getRowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : rows / (elapsedNanos / 1_000_000_000.0);
+    }
+}
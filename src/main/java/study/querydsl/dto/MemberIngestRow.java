@@ -0,0 +1,11 @@
+package study.querydsl.dto;
+
+import lombok.Data;
+
+@Data
+public class MemberIngestRow {
+
+    private final String username;
+    private final int age;
+    private final String teamName; // null 이면 팀 없음
+}
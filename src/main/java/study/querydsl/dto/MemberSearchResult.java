@@ -0,0 +1,18 @@
+package study.querydsl.dto;
+
+import lombok.Getter;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+@Getter
+public class MemberSearchResult {
+
+    private final Page<MemberTeamDto> page;
+    private final List<TeamAgeDto> teamAgeAverages;
+
+    public MemberSearchResult(Page<MemberTeamDto> page, List<TeamAgeDto> teamAgeAverages) {
+        this.page = page;
+        this.teamAgeAverages = teamAgeAverages;
+    }
+}
@@ -0,0 +1,27 @@
+package study.querydsl.dto;
+
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+public class MemberSyncResult {
+
+    private final long rows; // 입력 행 수 (같은 배치 안의 중복 username 포함)
+    private final long inserted;
+    private final long updated;
+    private final long teamsInserted;
+    private final long elapsedNanos;
+
+    public MemberSyncResult(long rows, long inserted, long updated, long teamsInserted, long elapsedNanos) {
+        this.rows = rows;
+        this.inserted = inserted;
+        this.updated = updated;
+        this.teamsInserted = teamsInserted;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public double getRowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : rows / (elapsedNanos / 1_000_000_000.0);
+    }
+}
@@ -0,0 +1,17 @@
+package study.querydsl.dto;
+
+import com.querydsl.core.annotations.QueryProjection;
+import lombok.Data;
+
+@Data
+public class TeamAgeDto {
+
+    private String teamName;
+    private double ageAvg;
+
+    @QueryProjection
+    public TeamAgeDto(String teamName, Double ageAvg) {
+        this.teamName = teamName;
+        this.ageAvg = ageAvg;
+    }
+}
@@ -2,14 +2,22 @@ package study.querydsl.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import study.querydsl.repository.support.MemberUsernameIndexListener;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_member_username_age", columnList = "username, age"), // username 검색(+ age 조건), keyset 페이징(username 정렬)
+        @Index(name = "idx_member_team_age", columnList = "team_id, age") // team 조인(FK), 팀별 age 조건
+})
+@EntityListeners(MemberUsernameIndexListener.class) // username 부분 검색 인덱스 (UsernameIndex)
 @Getter @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id", "username", "age"})
 public class Member {
 
-    @Id @GeneratedValue
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "member_seq_generator")
+    @SequenceGenerator(name = "member_seq_generator", sequenceName = "member_seq", allocationSize = 100)
     @Column(name = "member_id")
     private Long id;
     private String username;
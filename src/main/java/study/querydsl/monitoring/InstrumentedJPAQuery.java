@@ -0,0 +1,138 @@
+package study.querydsl.monitoring;
+
+import com.querydsl.core.DefaultQueryMetadata;
+import com.querydsl.core.NonUniqueResultException;
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.types.EntityPath;
+import com.querydsl.core.types.Expression;
+import com.querydsl.jpa.JPAProvider;
+import com.querydsl.jpa.JPQLSerializer;
+import com.querydsl.jpa.JPQLTemplates;
+import com.querydsl.jpa.impl.JPAQuery;
+import jakarta.persistence.EntityManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/*
+ * fetch / fetchOne / stream 실행 시간과 행 수를 기록하는 JPAQuery
+ * select() 는 같은 인스턴스를 반환하므로 queryFactory.select(..).from(..) 체인에서도 유지된다.
+ */
+class InstrumentedJPAQuery<T> extends JPAQuery<T> {
+
+    private final QueryMetrics metrics;
+
+    // createQuery() 가 만든 직렬화 결과. 기록할 때 toString() 으로 다시 직렬화하지 않는다.
+    private String jpql;
+    private List<Object> constants = List.of();
+
+    // templates 가 null 이면 EntityManager 에 맞는 기본값 (new JPAQuery<>(em) 과 같음)
+    InstrumentedJPAQuery(EntityManager em, JPQLTemplates templates, QueryMetrics metrics) {
+        this(em, templates != null ? templates : JPAProvider.getTemplates(em), new DefaultQueryMetadata(), metrics);
+    }
+
+    private InstrumentedJPAQuery(EntityManager em, JPQLTemplates templates, QueryMetadata metadata, QueryMetrics metrics) {
+        super(em, templates, metadata);
+        this.metrics = metrics;
+    }
+
+    @Override
+    public List<T> fetch() {
+        long start = System.nanoTime();
+        boolean success = false;
+        List<T> result = null;
+        try {
+            result = super.fetch();
+            success = true;
+            return result;
+        } finally {
+            record("fetch", start, result != null ? result.size() : 0, success);
+        }
+    }
+
+    @Override
+    public T fetchOne() throws NonUniqueResultException {
+        long start = System.nanoTime();
+        boolean success = false;
+        T result = null;
+        try {
+            result = super.fetchOne();
+            success = true;
+            return result;
+        } finally {
+            record("fetchOne", start, result != null ? 1 : 0, success);
+        }
+    }
+
+    // 스트림은 소비가 끝나 닫힐 때 기록한다. 읽는 도중 예외가 났으면 outcome=error
+    @Override
+    public Stream<T> stream() {
+        long start = System.nanoTime();
+        Stream<T> stream;
+        try {
+            stream = super.stream();
+        } catch (RuntimeException e) {
+            record("stream", start, 0, false);
+            throw e;
+        }
+        AtomicLong rows = new AtomicLong();
+        AtomicBoolean failed = new AtomicBoolean();
+        Spliterator<T> source = stream.spliterator();
+        Spliterator<T> counting = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, source.characteristics()
+                & ~(Spliterator.SIZED | Spliterator.SUBSIZED)) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                try {
+                    return source.tryAdvance(row -> {
+                        rows.incrementAndGet();
+                        action.accept(row);
+                    });
+                } catch (RuntimeException e) {
+                    failed.set(true);
+                    throw e;
+                }
+            }
+        };
+        return StreamSupport.stream(counting, false)
+                .onClose(stream::close)
+                .onClose(() -> record("stream", start, rows.get(), !failed.get()));
+    }
+
+    @Override
+    protected JPQLSerializer serialize(boolean forCountRow) {
+        JPQLSerializer serializer = super.serialize(forCountRow);
+        jpql = serializer.toString();
+        constants = serializer.getConstants();
+        return serializer;
+    }
+
+    @Override
+    public InstrumentedJPAQuery<T> clone(EntityManager entityManager, JPQLTemplates templates) {
+        InstrumentedJPAQuery<T> q = new InstrumentedJPAQuery<>(entityManager, templates, getMetadata().clone(), metrics);
+        q.clone(this);
+        return q;
+    }
+
+    private void record(String operation, long start, long rows, boolean success) {
+        long elapsed = System.nanoTime() - start;
+        // createQuery 전에 실패했으면 직렬화 결과가 없다.
+        String recorded = jpql != null ? jpql : toString();
+        List<Object> parameters = constants;
+        metrics.record(operation, entityOf(getMetadata()), recorded, elapsed, rows, success, () -> new ArrayList<>(parameters));
+    }
+
+    private static String entityOf(QueryMetadata metadata) {
+        if (metadata.getJoins().isEmpty()) {
+            return "none";
+        }
+        Expression<?> target = metadata.getJoins().get(0).getTarget();
+        return target instanceof EntityPath<?> path ? path.getType().getSimpleName() : "none";
+    }
+}
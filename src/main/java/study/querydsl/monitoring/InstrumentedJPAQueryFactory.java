@@ -0,0 +1,45 @@
+package study.querydsl.monitoring;
+
+import com.querydsl.core.types.EntityPath;
+import com.querydsl.jpa.JPQLTemplates;
+import com.querydsl.jpa.impl.JPAQuery;
+import jakarta.persistence.EntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+import study.querydsl.repository.support.EventPublishingJPAQueryFactory;
+
+/*
+ * JPAQueryFactory 로 만든 쿼리(select, selectFrom, update, delete)의 실행을 QueryMetrics 에 기록한다.
+ * new JPAQuery<>(em) 로 직접 만든 쿼리는 기록되지 않는다.
+ *
+ * update/delete 의 BulkOperationEvent 발행은 EventPublishingJPAQueryFactory 가 한다. (메트릭을 꺼도 발행된다.)
+ */
+public class InstrumentedJPAQueryFactory extends EventPublishingJPAQueryFactory {
+
+    private final QueryMetrics metrics;
+
+    public InstrumentedJPAQueryFactory(EntityManager em, QueryMetrics metrics, ApplicationEventPublisher eventPublisher) {
+        this(em, null, metrics, eventPublisher);
+    }
+
+    // templates 가 null 이면 EntityManager 에 맞는 기본값
+    public InstrumentedJPAQueryFactory(EntityManager em, JPQLTemplates templates, QueryMetrics metrics,
+                                       ApplicationEventPublisher eventPublisher) {
+        super(em, templates, eventPublisher);
+        this.metrics = metrics;
+    }
+
+    @Override
+    public JPAQuery<?> query() {
+        return new InstrumentedJPAQuery<Void>(entityManager(), templates(), metrics);
+    }
+
+    @Override
+    public InstrumentedJPAUpdateClause update(EntityPath<?> path) {
+        return new InstrumentedJPAUpdateClause(entityManager(), path, templates(), metrics, eventPublisher());
+    }
+
+    @Override
+    public InstrumentedJPADeleteClause delete(EntityPath<?> path) {
+        return new InstrumentedJPADeleteClause(entityManager(), path, templates(), metrics, eventPublisher());
+    }
+}
@@ -0,0 +1,48 @@
+package study.querydsl.monitoring;
+
+import com.querydsl.core.types.EntityPath;
+import com.querydsl.jpa.JPQLTemplates;
+import jakarta.persistence.EntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+import study.querydsl.repository.support.EventPublishingJPAUpdateClause;
+
+// update 절은 메타데이터가 노출되지 않아 slow query 로그에 파라미터 값은 남기지 않는다.
+public class InstrumentedJPAUpdateClause extends EventPublishingJPAUpdateClause {
+
+    private final JpqlCapture capture;
+    private final String entity;
+    private final QueryMetrics metrics;
+
+    InstrumentedJPAUpdateClause(EntityManager em, EntityPath<?> path, JPQLTemplates templates, QueryMetrics metrics,
+               ApplicationEventPublisher eventPublisher) {
+        this(new JpqlCapture(em), path, templates, metrics, eventPublisher);
+    }
+
+    private InstrumentedJPAUpdateClause(JpqlCapture capture, EntityPath<?> path, JPQLTemplates templates, QueryMetrics metrics,
+               ApplicationEventPublisher eventPublisher) {
+        super(capture.entityManager(), path, templates, eventPublisher);
+        this.capture = capture;
+        this.entity = path.getType().getSimpleName();
+        this.metrics = metrics;
+    }
+
+    @Override
+    public long execute() {
+        long start = System.nanoTime();
+        boolean success = false;
+        long affected = 0;
+        try {
+            affected = super.execute();
+            success = true;
+            return affected;
+        } finally {
+            metrics.record("update", entity, jpql(), System.nanoTime() - start, affected, success, null);
+        }
+    }
+
+    // createQuery 까지 가지 못하고 실패한 경우에만 직접 직렬화한다.
+    private String jpql() {
+        String jpql = capture.jpql();
+        return jpql != null ? jpql : toString();
+    }
+}
@@ -0,0 +1,46 @@
+package study.querydsl.monitoring;
+
+import jakarta.persistence.EntityManager;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/*
+ * JPAUpdateClause / JPADeleteClause 는 execute() 안에서 JPQL 을 만들고 꺼내 주지 않는다.
+ * toString() 으로 다시 직렬화하지 않도록 createQuery(String) 에 넘어가는 문자열을 가로챈다.
+ */
+class JpqlCapture implements InvocationHandler {
+
+    private final EntityManager delegate;
+    private final EntityManager proxy;
+    private String jpql;
+
+    JpqlCapture(EntityManager delegate) {
+        this.delegate = delegate;
+        this.proxy = (EntityManager) Proxy.newProxyInstance(
+                EntityManager.class.getClassLoader(), new Class<?>[]{EntityManager.class}, this);
+    }
+
+    EntityManager entityManager() {
+        return proxy;
+    }
+
+    // execute() 가 createQuery 전에 실패하면 null
+    String jpql() {
+        return jpql;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getName().equals("createQuery") && args != null && args.length == 1 && args[0] instanceof String query) {
+            jpql = query;
+        }
+        try {
+            return method.invoke(delegate, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
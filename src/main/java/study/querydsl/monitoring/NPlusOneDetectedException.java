@@ -0,0 +1,10 @@
+package study.querydsl.monitoring;
+
+import java.util.Map;
+
+public class NPlusOneDetectedException extends RuntimeException {
+
+    public NPlusOneDetectedException(String scopeName, Map<String, Integer> repeated) {
+        super("N+1 의심 쿼리 [" + scopeName + "] " + repeated);
+    }
+}
@@ -0,0 +1,15 @@
+package study.querydsl.monitoring;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter @Setter
+@ConfigurationProperties("querydsl.nplusone")
+public class NPlusOneProperties {
+
+    private boolean enabled = true;
+    private int threshold = 5; // 같은 모양의 SQL이 이 횟수 이상 반복되면 N+1 로 판단
+    private boolean failOnDetection = false; // true 면 예외 (테스트용, 응답이 이미 나간 HTTP 요청과 끝난 트랜잭션에서는 로그 + 메트릭만)
+    private boolean transactionScope = true; // HTTP 요청 밖의 트랜잭션도 작업 단위로 센다 (QueryCountTransactionListener)
+}
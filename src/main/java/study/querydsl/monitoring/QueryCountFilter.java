@@ -0,0 +1,37 @@
+package study.querydsl.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// HTTP 요청 하나를 QueryScope 로 묶는다.
+// 판정은 응답 뒤에 하므로 failOnDetection 예외는 응답이 아직 커밋되지 않았을 때만 던진다. (이미 로그 + 메트릭은 남았다)
+@Component
+@RequiredArgsConstructor
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    private final QueryCounter queryCounter;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        QueryScope scope = queryCounter.open(request.getMethod() + " " + request.getRequestURI());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            try {
+                scope.close();
+            } catch (NPlusOneDetectedException e) {
+                if (!response.isCommitted()) {
+                    throw e;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package study.querydsl.monitoring;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.JdbcEventListener;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+
+// p6spy-spring-boot-starter 는 JdbcEventListener 빈을 자동으로 등록한다.
+@Component
+@RequiredArgsConstructor
+public class QueryCountListener extends JdbcEventListener {
+
+    private final QueryCounter queryCounter;
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        queryCounter.record(statementInformation.getSql());
+    }
+}
@@ -0,0 +1,58 @@
+package study.querydsl.monitoring;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * HTTP 요청 밖에서 시작한 트랜잭션 하나를 QueryScope 로 묶는다.
+ * (ChunkedBulkExecutor 청크, export 워커, UsernameIndex 재생성, 스케줄러 등)
+ * 스프링 부트가 TransactionExecutionListener 빈을 트랜잭션 매니저에 등록한다.
+ *
+ * - 이미 열린 scope(HTTP 요청 등)가 있으면 새로 열지 않는다. 같은 SQL 이 두 번 판정되지 않게 한다.
+ * - 커밋/롤백이 끝난 뒤에 판정하므로 failOnDetection 이어도 예외를 던지지 않는다. (로그 + 메트릭만)
+ */
+@Component
+@RequiredArgsConstructor
+public class QueryCountTransactionListener implements TransactionExecutionListener {
+
+    private final QueryCounter queryCounter;
+    private final NPlusOneProperties properties;
+    private final Map<TransactionExecution, QueryScope> scopes = new ConcurrentHashMap<>();
+
+    @Override
+    public void afterBegin(TransactionExecution transaction, Throwable beginFailure) {
+        if (beginFailure != null || !properties.isTransactionScope() || !transaction.isNewTransaction()
+                || queryCounter.hasOpenScope()) {
+            return;
+        }
+        String name = transaction.getTransactionName();
+        scopes.put(transaction, queryCounter.open(name == null || name.isEmpty() ? "transaction" : "transaction " + name));
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        close(transaction);
+    }
+
+    @Override
+    public void afterRollback(TransactionExecution transaction, Throwable rollbackFailure) {
+        close(transaction);
+    }
+
+    private void close(TransactionExecution transaction) {
+        QueryScope scope = scopes.remove(transaction);
+        if (scope == null) {
+            return;
+        }
+        try {
+            scope.close();
+        } catch (NPlusOneDetectedException e) {
+            // 이미 기록됨. 끝난 트랜잭션의 호출자에게 던지지 않는다.
+        }
+    }
+}
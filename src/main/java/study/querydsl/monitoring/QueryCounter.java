@@ -0,0 +1,79 @@
+package study.querydsl.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/*
+ * 스레드 단위로 열린 QueryScope 에 실행된 SQL을 기록한다.
+ * 작업 단위: HTTP 요청(QueryCountFilter), 요청 밖에서 시작한 트랜잭션(QueryCountTransactionListener), 직접 연 scope
+ *
+ * try (QueryScope scope = queryCounter.open("search")) {
+ *     ...
+ * } // 닫힐 때 같은 모양의 SQL이 threshold 번 이상이면 로그 + 메트릭 (+ 예외)
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(NPlusOneProperties.class)
+public class QueryCounter {
+
+    private final ThreadLocal<QueryScope> current = new ThreadLocal<>();
+    private final NPlusOneProperties properties;
+    private final Counter detected;
+    private final DistributionSummary statementsPerScope;
+
+    public QueryCounter(NPlusOneProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.detected = Counter.builder("querydsl.nplusone.detected")
+                .description("같은 모양의 SQL이 threshold 이상 반복된 작업 단위 수")
+                .register(meterRegistry);
+        this.statementsPerScope = DistributionSummary.builder("querydsl.statements.per.scope")
+                .description("작업 단위(HTTP 요청 등)당 실행된 SQL 수")
+                .register(meterRegistry);
+    }
+
+    public QueryScope open(String name) {
+        QueryScope scope = new QueryScope(name, current.get(), this);
+        current.set(scope);
+        return scope;
+    }
+
+    boolean hasOpenScope() {
+        return current.get() != null;
+    }
+
+    void record(String sql) {
+        QueryScope scope = current.get();
+        if (scope != null && sql != null) {
+            scope.record(sql);
+        }
+    }
+
+    void close(QueryScope scope) {
+        if (scope.getParent() == null) {
+            current.remove();
+        } else {
+            current.set(scope.getParent());
+        }
+
+        statementsPerScope.record(scope.getStatementCount());
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        Map<String, Integer> repeated = scope.repeatedShapes(properties.getThreshold());
+        if (repeated.isEmpty()) {
+            return;
+        }
+        detected.increment();
+        log.warn("N+1 의심 [{}] total statements = {}, repeated = {}", scope.getName(), scope.getStatementCount(), repeated);
+        if (properties.isFailOnDetection()) {
+            throw new NPlusOneDetectedException(scope.getName(), repeated);
+        }
+    }
+}
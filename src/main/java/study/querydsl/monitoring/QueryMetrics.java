@@ -0,0 +1,153 @@
+package study.querydsl.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/*
+ * Querydsl 쿼리 실행 시간/결과 행 수를 쿼리 모양(shape)별로 기록한다.
+ *
+ * - shape: 파라미터 자리(?1, ?2 ..)만 남은 JPQL. 태그에는 "엔티티#JPQL SHA-256 앞 64비트" 를 쓰고
+ *   원본 JPQL은 /actuator/querydslshapes 에서 확인한다. (재시작해도 같은 태그, 32비트 hashCode 처럼 충돌로 합쳐지지 않게)
+ * - querydsl.query (timer): operation, shape, entity, outcome 태그. 히스토그램만 내보내고 백분위는 모니터링 서버에서 계산한다.
+ *   (shape 마다 클라이언트 백분위 계산기를 두지 않는다)
+ * - querydsl.query.rows (summary): 조회된 행 수 또는 update/delete 영향 행 수
+ * - slowQueryThreshold 이상 걸린 쿼리는 "querydsl.slow-query" 로거로 남긴다.
+ */
+@Component
+@EnableConfigurationProperties(QueryMetricsProperties.class)
+public class QueryMetrics {
+
+    static final String OTHER_SHAPE = "other";
+
+    private static final Logger slowQueryLog = LoggerFactory.getLogger("querydsl.slow-query");
+
+    private final QueryMetricsProperties properties;
+    private final MeterRegistry meterRegistry;
+    // JPQL -> Shape. 같은 JPQL 이면 태그 문자열을 다시 만들지 않는다.
+    private final Map<String, Shape> shapes = new ConcurrentHashMap<>();
+
+    public QueryMetrics(QueryMetricsProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * @param parameters slow query 일 때만 호출된다. 파라미터를 알 수 없으면 null
+     */
+    void record(String operation, String entity, String jpql, long elapsedNanos, long rows,
+                boolean success, Supplier<List<Object>> parameters) {
+        String shape = shapeOf(operation, entity, jpql);
+
+        Timer.builder("querydsl.query")
+                .description("Querydsl 쿼리 실행 시간 (stream 은 스트림을 닫을 때까지)")
+                .tags("operation", operation, "shape", shape, "entity", entity, "outcome", success ? "success" : "error")
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+
+        if (success) {
+            DistributionSummary.builder("querydsl.query.rows")
+                    .description("조회 행 수 / 영향 받은 행 수")
+                    .tags("operation", operation, "shape", shape, "entity", entity)
+                    .register(meterRegistry)
+                    .record(rows);
+        }
+
+        if (elapsedNanos >= properties.getSlowQueryThreshold().toNanos()) {
+            slowQueryLog.warn("slow query [{}] {} ms, rows = {}, operation = {}\n{}\nparameters = {}",
+                    shape, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), rows, operation, jpql,
+                    parameters != null ? describe(parameters.get(), properties.isRedactParameters()) : "(unavailable)");
+        }
+    }
+
+    private String shapeOf(String operation, String entity, String jpql) {
+        Shape shape = shapes.get(jpql);
+        if (shape != null) {
+            return shape.getTag();
+        }
+        if (shapes.size() >= properties.getMaxShapes()) {
+            return OTHER_SHAPE;
+        }
+        String tag = entity + "#" + digest(jpql);
+        return shapes.computeIfAbsent(jpql, key -> new Shape(tag, operation, entity, key)).getTag();
+    }
+
+    static String digest(String jpql) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(jpql.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // 모든 JVM 이 SHA-256 을 제공한다.
+        }
+    }
+
+    // ?1, ?2 .. 순서대로. 값이 노출되면 안 되는 경우가 있으므로 기본은 타입(길이)만 남긴다.
+    static String describe(List<Object> parameters, boolean redact) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < parameters.size(); i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append('?').append(i + 1).append('=').append(redact ? redacted(parameters.get(i)) : parameters.get(i));
+        }
+        return sb.append(']').toString();
+    }
+
+    private static String redacted(Object value) {
+        if (value == null) {
+            return "null";
+        }
+        String type = value.getClass().getSimpleName();
+        if (value instanceof CharSequence text) {
+            return type + "(" + text.length() + ")";
+        }
+        if (value instanceof Collection<?> collection) {
+            return type + "(" + collection.size() + ")";
+        }
+        return type;
+    }
+
+    public Map<String, Shape> getShapes() {
+        Map<String, Shape> byTag = new TreeMap<>();
+        shapes.values().forEach(shape -> byTag.put(shape.getTag(), shape));
+        return byTag;
+    }
+
+    @Getter
+    public static class Shape {
+
+        private final String tag;
+        private final String operation;
+        private final String entity;
+        private final String jpql;
+
+        Shape(String tag, String operation, String entity, String jpql) {
+            this.tag = tag;
+            this.operation = operation;
+            this.entity = entity;
+            this.jpql = jpql;
+        }
+    }
+}
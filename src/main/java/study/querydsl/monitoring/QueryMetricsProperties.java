@@ -0,0 +1,17 @@
+package study.querydsl.monitoring;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter @Setter
+@ConfigurationProperties("querydsl.metrics")
+public class QueryMetricsProperties {
+
+    private boolean enabled = true;
+    private Duration slowQueryThreshold = Duration.ofMillis(500); // 이 시간 이상 걸린 쿼리는 slow query 로그
+    private boolean redactParameters = true; // true 면 slow query 로그에 파라미터 값 대신 타입(길이)만 남긴다
+    private int maxShapes = 500; // shape 태그 수 상한, 넘어가면 "other" 로 기록 (메트릭 카디널리티 제한)
+}
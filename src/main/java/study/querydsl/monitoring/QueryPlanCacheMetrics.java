@@ -0,0 +1,51 @@
+package study.querydsl.monitoring;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.spi.QueryInterpretationCache;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/*
+ * Hibernate 쿼리 플랜 캐시 (HQL -> SQM 해석 결과)
+ *
+ * - hibernate.query.plan.cache.requests (result=hit|miss)
+ * - hibernate.query.plan.cache.size: 캐시된 HQL 해석 수 (최대 hibernate.query.plan_cache_max_size)
+ * 통계 수집 비용이 있으므로 spring.jpa.properties.hibernate.generate_statistics=true 일 때만 등록한다.
+ * (hibernate-micrometer 의 2차 캐시/쿼리 캐시 메트릭도 통계가 꺼져 있으면 등록되지 않는다)
+ *
+ * miss 가 계속 늘어나면 JPQL 모양이 요청마다 달라지고 있다는 뜻이다. (쿼리 모양별 JPQL 은 /actuator/querydslshapes)
+ */
+@Component
+@ConditionalOnProperty(prefix = "spring.jpa.properties.hibernate", name = "generate_statistics", havingValue = "true")
+public class QueryPlanCacheMetrics implements MeterBinder {
+
+    private final SessionFactoryImplementor sessionFactory;
+
+    public QueryPlanCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Statistics statistics = sessionFactory.getStatistics();
+        FunctionCounter.builder("hibernate.query.plan.cache.requests", statistics, Statistics::getQueryPlanCacheHitCount)
+                .description("쿼리 플랜 캐시 조회 수")
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("hibernate.query.plan.cache.requests", statistics, Statistics::getQueryPlanCacheMissCount)
+                .description("쿼리 플랜 캐시 조회 수")
+                .tag("result", "miss")
+                .register(registry);
+
+        QueryInterpretationCache interpretationCache = sessionFactory.getQueryEngine().getInterpretationCache();
+        Gauge.builder("hibernate.query.plan.cache.size", interpretationCache, QueryInterpretationCache::getNumberOfCachedHqlInterpretations)
+                .description("캐시된 HQL 해석 수")
+                .register(registry);
+    }
+}
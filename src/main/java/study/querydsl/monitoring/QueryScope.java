@@ -0,0 +1,93 @@
+package study.querydsl.monitoring;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/*
+ * 하나의 작업 단위(HTTP 요청, 트랜잭션, 테스트 등) 동안 실행된 SQL을 모양(shape)별로 센다.
+ * 파라미터 값과 in 절 길이가 달라도 같은 모양으로 취급한다.
+ * 반복 판정(N+1)에는 select 만 쓴다. 대량 등록의 insert batch, 시퀀스 조회는 반복돼도 정상이다.
+ */
+public class QueryScope implements AutoCloseable {
+
+    private static final Pattern COMMENT = Pattern.compile("/\\*.*?\\*/", Pattern.DOTALL);
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern SEQUENCE_CALL = Pattern.compile("next value for|nextval\\(");
+
+    private final String name;
+    private final QueryScope parent;
+    private final QueryCounter counter;
+    private final Map<String, Integer> shapes = new LinkedHashMap<>();
+    private int statementCount;
+
+    QueryScope(String name, QueryScope parent, QueryCounter counter) {
+        this.name = name;
+        this.parent = parent;
+        this.counter = counter;
+    }
+
+    void record(String sql) {
+        statementCount++;
+        String shape = shapeOf(sql);
+        if (isQuery(shape)) {
+            shapes.merge(shape, 1, Integer::sum);
+        }
+        if (parent != null) {
+            parent.record(sql);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    public Map<String, Integer> getShapes() {
+        return Map.copyOf(shapes);
+    }
+
+    public Map<String, Integer> repeatedShapes(int threshold) {
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        shapes.forEach((shape, count) -> {
+            if (count >= threshold) {
+                repeated.put(shape, count);
+            }
+        });
+        return repeated;
+    }
+
+    public void assertNoRepeatedStatements(int threshold) {
+        Map<String, Integer> repeated = repeatedShapes(threshold);
+        if (!repeated.isEmpty()) {
+            throw new NPlusOneDetectedException(name, repeated);
+        }
+    }
+
+    QueryScope getParent() {
+        return parent;
+    }
+
+    @Override
+    public void close() {
+        counter.close(this);
+    }
+
+    static boolean isQuery(String shape) {
+        return (shape.startsWith("select") || shape.startsWith("with")) && !SEQUENCE_CALL.matcher(shape).find();
+    }
+
+    static String shapeOf(String sql) {
+        String shape = COMMENT.matcher(sql).replaceAll(" ");
+        shape = STRING_LITERAL.matcher(shape).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("(?)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim().toLowerCase();
+    }
+}
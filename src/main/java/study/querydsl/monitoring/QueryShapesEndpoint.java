@@ -0,0 +1,26 @@
+package study.querydsl.monitoring;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/*
+ * GET /actuator/querydslshapes
+ * querydsl.query 메트릭의 shape 태그 -> JPQL
+ * 예) /actuator/metrics/querydsl.query?tag=shape:Member%23a1b2c3d4
+ */
+@Component
+@Endpoint(id = "querydslshapes")
+@RequiredArgsConstructor
+public class QueryShapesEndpoint {
+
+    private final QueryMetrics queryMetrics;
+
+    @ReadOperation
+    public Map<String, QueryMetrics.Shape> shapes() {
+        return queryMetrics.getShapes();
+    }
+}
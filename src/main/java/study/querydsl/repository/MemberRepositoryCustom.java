@@ -0,0 +1,34 @@
+package study.querydsl.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import study.querydsl.dto.MemberDto;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.entity.Member;
+import study.querydsl.repository.support.KeysetPage;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface MemberRepositoryCustom {
+
+    KeysetPage<Member> searchByKeyset(String cursor, int size);
+
+    // 정렬은 memberId, username, age, teamName 만 적용하고(그 밖의 속성은 무시) 마지막에 id 순
+    Page<MemberTeamDto> searchPage(MemberSearchCondition condition, Pageable pageable);
+
+    // searchPage 의 content / count 쿼리를 따로 실행할 때 사용
+    List<MemberTeamDto> searchContent(MemberSearchCondition condition, Pageable pageable);
+
+    long searchCount(MemberSearchCondition condition);
+
+    // 조건 조합(모양)별로 직렬화된 JPQL을 재사용하는 동적 검색
+    List<Member> searchMembers(String usernameCond, Integer ageCond);
+
+    // username 부분 일치 (대소문자 무시), UsernameIndex 로 id 를 먼저 찾는다.
+    List<Member> searchByUsernameContaining(String term);
+
+    // 트랜잭션 안에서 소비하고 반드시 close 해야 한다.
+    Stream<MemberDto> streamMembers(int fetchSize);
+}
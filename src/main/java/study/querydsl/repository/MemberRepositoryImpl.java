@@ -0,0 +1,242 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.ParamExpression;
+import com.querydsl.core.types.dsl.ComparableExpressionBase;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Param;
+import com.querydsl.jpa.JPAExpressions;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+import study.querydsl.dto.MemberDto;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.QMemberDto;
+import study.querydsl.dto.QMemberTeamDto;
+import study.querydsl.entity.Member;
+import study.querydsl.repository.support.KeysetPage;
+import study.querydsl.repository.support.KeysetSort;
+import study.querydsl.repository.support.QueryShapeCache;
+import study.querydsl.repository.support.UsernameIndex;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+@Transactional(readOnly = true) // 조회 전용: 스냅샷을 만들지 않고 flush 하지 않는다.
+public class MemberRepositoryImpl implements MemberRepositoryCustom {
+
+    // username 내림차순, 같은 이름이면 id 내림차순
+    static final KeysetSort<Member> USERNAME_DESC = KeysetSort.<Member>builder()
+            .orderBy(member.username.desc(), Member::getUsername)
+            .tiebreaker(member.id.desc(), Member::getId);
+
+    private static final Param<String> USERNAME = new Param<>(String.class, "username");
+    private static final Param<Integer> AGE = new Param<>(Integer.class, "age");
+
+    // searchPage 정렬에 쓸 수 있는 속성 (MemberTeamDto 필드 이름). 그 밖의 속성은 무시한다.
+    private static final Map<String, ComparableExpressionBase<?>> SORTABLE = Map.of(
+            "memberId", member.id,
+            "username", member.username,
+            "age", member.age,
+            "teamName", team.name);
+
+    // 이보다 많이 맞으면 in 절보다 like 스캔이 낫다.
+    static final int MAX_INDEXED_IDS = 1_000;
+
+    private final EntityManager em;
+    private final JPAQueryFactory queryFactory;
+    private final QueryShapeCache queryShapeCache;
+    private final UsernameIndex usernameIndex;
+
+    public MemberRepositoryImpl(EntityManager em, JPAQueryFactory queryFactory, QueryShapeCache queryShapeCache,
+                                UsernameIndex usernameIndex) {
+        this.em = em;
+        this.queryFactory = queryFactory;
+        this.queryShapeCache = queryShapeCache;
+        this.usernameIndex = usernameIndex;
+    }
+
+    @Override
+    public KeysetPage<Member> searchByKeyset(String cursor, int size) {
+        return USERNAME_DESC.fetch(
+                queryFactory
+                        .selectFrom(member)
+                        .where(member.username.isNotNull()),
+                cursor, size);
+    }
+
+    @Override
+    public Page<MemberTeamDto> searchPage(MemberSearchCondition condition, Pageable pageable) {
+        List<MemberTeamDto> content = searchContent(condition, pageable);
+
+        // count 쿼리는 LongSupplier 가 호출되기 전까지 실행되지 않는다.
+        // 첫 페이지인데 content가 pageSize보다 작거나, 마지막 페이지면 count 쿼리를 생략한다.
+        return PageableExecutionUtils.getPage(content, pageable, () -> searchCount(condition));
+    }
+
+    @Override
+    public List<MemberTeamDto> searchContent(MemberSearchCondition condition, Pageable pageable) {
+        return queryFactory
+                .select(new QMemberTeamDto(
+                        member.id,
+                        member.username,
+                        member.age,
+                        team.id,
+                        team.name))
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(
+                        usernameEq(condition.getUsername()),
+                        teamNameEq(condition.getTeamName()),
+                        ageGoe(condition.getAgeGoe()),
+                        ageLoe(condition.getAgeLoe()))
+                .orderBy(orderBy(pageable.getSort()))
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .fetch();
+    }
+
+    // pageable 의 정렬 + 마지막에 id (정렬 키가 같아도 페이지 경계가 흔들리지 않게)
+    private static OrderSpecifier<?>[] orderBy(Sort sort) {
+        List<OrderSpecifier<?>> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            ComparableExpressionBase<?> path = SORTABLE.get(order.getProperty());
+            if (path != null) {
+                orders.add(order.isAscending() ? path.asc() : path.desc());
+            }
+        }
+        orders.add(member.id.asc());
+        return orders.toArray(OrderSpecifier[]::new);
+    }
+
+    @Override
+    public long searchCount(MemberSearchCondition condition) {
+        Long count = countQuery(condition).fetchOne();
+        return count != null ? count : 0;
+    }
+
+    @Override
+    public List<Member> searchMembers(String usernameCond, Integer ageCond) {
+        boolean hasUsername = usernameCond != null;
+        boolean hasAge = ageCond != null;
+
+        Map<ParamExpression<?>, Object> params = new HashMap<>();
+        if (hasUsername) {
+            params.put(USERNAME, usernameCond);
+        }
+        if (hasAge) {
+            params.put(AGE, ageCond);
+        }
+
+        // 모양은 조건 유무 조합 4가지뿐이다.
+        return queryShapeCache.fetch(
+                List.of("searchMembers", hasUsername, hasAge),
+                () -> JPAExpressions
+                        .selectFrom(member)
+                        .where(
+                                hasUsername ? member.username.eq(USERNAME) : null,
+                                hasAge ? member.age.eq(AGE) : null),
+                params);
+    }
+
+    @Override
+    public List<Member> searchByUsernameContaining(String term) {
+        if (usernameIndex.supports(term)) {
+            List<Long> ids = indexedIds(term); // null: 인덱스를 쓸 수 없음
+            if (ids != null && ids.isEmpty()) {
+                return List.of();
+            }
+            if (ids != null && ids.size() <= MAX_INDEXED_IDS) {
+                return queryFactory
+                        .selectFrom(member)
+                        // 인덱스에 반영되지 않은 변경(네이티브 SQL 등)이 있을 수 있으므로 DB 값으로 다시 확인한다.
+                        .where(member.id.in(ids), member.username.containsIgnoreCase(term))
+                        .orderBy(member.id.asc())
+                        .fetch();
+            }
+        }
+
+        // 검색어가 짧거나, 너무 많이 맞거나, 인덱스를 쓸 수 없는 경우: lower(username) like '%term%' (전체 스캔)
+        return queryFactory
+                .selectFrom(member)
+                .where(member.username.containsIgnoreCase(term))
+                .orderBy(member.id.asc())
+                .fetch();
+    }
+
+    /*
+     * 인덱스는 커밋된 변경만 담는다. 이 트랜잭션에서 바꾼 회원이 있으면 like 로 찾는다. (like 는 조회 전에 자동 flush)
+     * 쓰기 트랜잭션에 참여한 경우 아직 flush 되지 않은 persist/변경 감지를 먼저 flush 해서 리스너에 알린다.
+     */
+    private List<Long> indexedIds(String term) {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            em.flush();
+        }
+        if (usernameIndex.hasPendingChanges()) {
+            return null;
+        }
+        return usernameIndex.find(term).orElse(null); // empty: 인덱스를 다시 만드는 중
+    }
+
+    @Override
+    public Stream<MemberDto> streamMembers(int fetchSize) {
+        // fetch()는 결과 전체를 List로 올리지만 stream()은 JDBC 커서를 fetchSize 단위로 읽어온다.
+        // DTO 조회라 영속성 컨텍스트에 엔티티가 쌓이지 않는다.
+        return queryFactory
+                .select(new QMemberDto(member.username, member.age))
+                .from(member)
+                .orderBy(member.id.asc())
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .stream();
+    }
+
+    private JPAQuery<Long> countQuery(MemberSearchCondition condition) {
+        JPAQuery<Long> countQuery = queryFactory
+                .select(member.count())
+                .from(member);
+
+        // member -> team 은 다대일 left join 이라 건수가 변하지 않는다.
+        // 팀 이름 조건이 있을 때만 조인한다.
+        if (StringUtils.hasText(condition.getTeamName())) {
+            countQuery.join(member.team, team);
+        }
+
+        return countQuery
+                .where(
+                        usernameEq(condition.getUsername()),
+                        teamNameEq(condition.getTeamName()),
+                        ageGoe(condition.getAgeGoe()),
+                        ageLoe(condition.getAgeLoe()));
+    }
+
+    private BooleanExpression usernameEq(String username) {
+        return StringUtils.hasText(username) ? member.username.eq(username) : null;
+    }
+
+    private BooleanExpression teamNameEq(String teamName) {
+        return StringUtils.hasText(teamName) ? team.name.eq(teamName) : null;
+    }
+
+    private BooleanExpression ageGoe(Integer ageGoe) {
+        return ageGoe != null ? member.age.goe(ageGoe) : null;
+    }
+
+    private BooleanExpression ageLoe(Integer ageLoe) {
+        return ageLoe != null ? member.age.loe(ageLoe) : null;
+    }
+}
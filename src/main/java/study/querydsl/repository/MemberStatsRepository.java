@@ -0,0 +1,116 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.datasource.RoutingDataSourceConfig;
+import study.querydsl.dto.MemberAgeSummaryDto;
+import study.querydsl.dto.QTeamAgeDto;
+import study.querydsl.dto.TeamAgeDto;
+import study.querydsl.repository.support.BulkOperationEvent;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+/*
+ * 대시보드용 집계 쿼리
+ * 결과를 캐시(caffeine, 크기 + TTL 제한)하고, Member/Team 벌크 연산이 실행되면 캐시를 비운다.
+ * 벌크가 아닌 일반 변경(persist, dirty checking)은 TTL 이 지나야 반영된다.
+ *
+ * - 캐시는 트랜잭션 밖이나 읽기 전용 트랜잭션 안에서만 읽고 채운다.
+ *   쓰기 트랜잭션(@Transactional 서비스 메서드 등) 안에서 부르면 캐시를 건너뛰고 항상 그 트랜잭션에서 조회한다. (캐시 hit 없음)
+ *   자기 변경은 보이고, 커밋되지 않은(롤백될 수 있는) 값은 캐시에 남지 않는다.
+ * - 벌크 연산 트랜잭션이 끝나면(커밋/롤백 모두) 캐시를 비운다.
+ * - 라우팅(querydsl.routing.enabled)이 켜져 있고 호출한 트랜잭션이 replica 에서 읽으면, 캐시 miss 는 primary 새 트랜잭션에서 읽는다.
+ *   벌크 연산 직후 비운 캐시를 지연된 replica 값으로 다시 채우면 TTL 동안 오래된 값이 남는다.
+ *   이때만 커넥션을 하나 더 쓰고, 그 밖에는 호출한 트랜잭션(또는 트랜잭션 없이)에서 읽는다.
+ */
+@Repository
+public class MemberStatsRepository {
+
+    static final String TEAM_AGE_AVERAGES = "teamAgeAverages";
+    static final String MEMBER_AGE_SUMMARY = "memberAgeSummary";
+
+    private final JPAQueryFactory queryFactory;
+    private final ObjectProvider<RoutingDataSourceConfig> routing;
+    private final TransactionTemplate primaryTx;
+
+    public MemberStatsRepository(JPAQueryFactory queryFactory, ObjectProvider<RoutingDataSourceConfig> routing,
+                                 PlatformTransactionManager transactionManager) {
+        this.queryFactory = queryFactory;
+        this.routing = routing;
+        this.primaryTx = new TransactionTemplate(transactionManager); // readOnly 아님 -> primary
+        this.primaryTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW); // 바깥 읽기 전용 트랜잭션(replica)에 참여하지 않음
+    }
+
+    // @Cacheable(condition): 쓰기 트랜잭션 안이면 캐시를 건너뛴다.
+    public static boolean cacheable() {
+        return !TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    @Cacheable(cacheNames = TEAM_AGE_AVERAGES, condition = "T(study.querydsl.repository.MemberStatsRepository).cacheable()")
+    public List<TeamAgeDto> findTeamAgeAverages() {
+        return query(() -> List.copyOf(queryFactory
+                .select(new QTeamAgeDto(team.name, member.age.avg()))
+                .from(member)
+                .join(member.team, team)
+                .groupBy(team.name)
+                .orderBy(team.name.asc())
+                .fetch()));
+    }
+
+    @Cacheable(cacheNames = MEMBER_AGE_SUMMARY, condition = "T(study.querydsl.repository.MemberStatsRepository).cacheable()")
+    public MemberAgeSummaryDto findAgeSummary() {
+        Tuple tuple = query(() -> queryFactory
+                .select(
+                        member.count(),
+                        member.age.sum(),
+                        member.age.avg(),
+                        member.age.max(),
+                        member.age.min()
+                )
+                .from(member)
+                .fetchOne());
+
+        // hibernate6 는 sum(int)를 Long으로 반환하므로 Number로 받는다.
+        return new MemberAgeSummaryDto(
+                longValue(tuple.get(0, Number.class)),
+                longValue(tuple.get(1, Number.class)),
+                tuple.get(2, Number.class) == null ? 0 : tuple.get(2, Number.class).doubleValue(),
+                (int) longValue(tuple.get(3, Number.class)),
+                (int) longValue(tuple.get(4, Number.class)));
+    }
+
+    // 커밋 전에 다른 트랜잭션이 옛 값으로 다시 채웠을 수 있으므로 트랜잭션이 끝나면 비운다. (롤백도)
+    // 트랜잭션 밖에서 발행된 이벤트는 바로 비운다.
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true,
+            condition = "#event.affects(T(study.querydsl.entity.Member)) or #event.affects(T(study.querydsl.entity.Team))")
+    @CacheEvict(cacheNames = {TEAM_AGE_AVERAGES, MEMBER_AGE_SUMMARY}, allEntries = true)
+    public void evictAfterBulkCompletion(BulkOperationEvent event) {
+    }
+
+    private <T> T query(Supplier<T> query) {
+        RoutingDataSourceConfig routingConfig = routing.getIfAvailable();
+        if (routingConfig != null && routingConfig.isReplicaRead()) {
+            return primaryTx.execute(status -> query.get());
+        }
+        return query.get();
+    }
+
+    private static long longValue(Number number) {
+        return number == null ? 0 : number.longValue();
+    }
+}
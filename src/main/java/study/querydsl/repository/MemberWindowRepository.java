@@ -0,0 +1,114 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.core.types.dsl.PathBuilder;
+import com.querydsl.sql.SQLExpressions;
+import com.querydsl.sql.SQLQuery;
+import com.querydsl.sql.SQLQueryFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberAgeWindowDto;
+import study.querydsl.dto.MemberDto;
+
+import java.util.List;
+import java.util.function.Function;
+
+import static study.querydsl.sql.SMember.member;
+import static study.querydsl.sql.STeam.team;
+
+/*
+ * 윈도우 함수 쿼리 (querydsl-sql)
+ * JPQL 은 over() 를 지원하지 않아 서브쿼리(JPAExpressions)나 팀마다 쿼리(N+1)로 풀어야 했던 것들
+ * member 테이블을 한 번만 읽는다.
+ */
+@Repository
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class MemberWindowRepository {
+
+    private static final NumberPath<Long> AGE_RANK = Expressions.numberPath(Long.class, "AGE_RANK");
+    private static final NumberPath<Integer> MAX_AGE = Expressions.numberPath(Integer.class, "MAX_AGE");
+    private static final NumberPath<Double> AVG_AGE = Expressions.numberPath(Double.class, "AVG_AGE");
+
+    private final SQLQueryFactory sqlQueryFactory;
+
+    // 팀별 나이 상위 n 명 (동순위 포함), 팀 -> 순위 순
+    public List<MemberDto> findTopByAgePerTeam(int n) {
+        return fetchRanked(
+                SQLExpressions.rank().over().partitionBy(member.teamId).orderBy(member.age.desc()).as(AGE_RANK),
+                ranked -> ranked.getNumber(AGE_RANK.getMetadata().getName(), Long.class).loe((long) n),
+                member.teamId.isNotNull(),
+                "TEAM_ID", "AGE_RANK", "MEMBER_ID");
+    }
+
+    // QuerydslBasicTest.subQuery: age = (select max(age) from member)
+    public List<MemberDto> findOldest() {
+        return fetchRanked(
+                SQLExpressions.max(member.age).over().as(MAX_AGE),
+                ranked -> ranked.getNumber("AGE", Integer.class).eq(ranked.getNumber(MAX_AGE.getMetadata().getName(), Integer.class)),
+                null,
+                "MEMBER_ID");
+    }
+
+    // QuerydslBasicTest.subQueryGoe: age >= (select avg(age) from member)
+    public List<MemberDto> findAgeGoeAverage() {
+        return fetchRanked(
+                SQLExpressions.avg(member.age.castToNum(Double.class)).over().as(AVG_AGE),
+                ranked -> ranked.getNumber("AGE", Double.class).goe(ranked.getNumber(AVG_AGE.getMetadata().getName(), Double.class)),
+                null,
+                "MEMBER_ID");
+    }
+
+    // 팀 내 나이 순위, 누적 평균(나이 내림차순), 팀 평균
+    public List<MemberAgeWindowDto> findAgeWindows() {
+        return sqlQueryFactory
+                .select(Projections.constructor(MemberAgeWindowDto.class,
+                        member.username,
+                        member.age,
+                        team.name,
+                        SQLExpressions.rank().over()
+                                .partitionBy(member.teamId)
+                                .orderBy(member.age.desc()),
+                        SQLExpressions.avg(member.age.castToNum(Double.class)).over()
+                                .partitionBy(member.teamId)
+                                .orderBy(member.age.desc(), member.memberId.asc())
+                                .rows().between().unboundedPreceding().currentRow(),
+                        SQLExpressions.avg(member.age.castToNum(Double.class)).over()
+                                .partitionBy(member.teamId)))
+                .from(member)
+                .join(team).on(member.teamId.eq(team.teamId))
+                .orderBy(team.name.asc(), member.age.desc(), member.memberId.asc())
+                .fetch();
+    }
+
+    /*
+     * where 절에서는 윈도우 함수를 쓸 수 없으므로 윈도우 값을 컬럼으로 가진 인라인 뷰를 만들고 바깥에서 거른다.
+     * select username, age from (select ..., <window> as <alias> from member) ranked where <filter>
+     */
+    private List<MemberDto> fetchRanked(Expression<?> window,
+                                        Function<PathBuilder<Tuple>, Predicate> filter,
+                                        Predicate innerWhere,
+                                        String... orderColumns) {
+        PathBuilder<Tuple> ranked = new PathBuilder<>(Tuple.class, "ranked");
+
+        SQLQuery<MemberDto> query = sqlQueryFactory
+                .select(Projections.constructor(MemberDto.class,
+                        ranked.getString("USERNAME"),
+                        ranked.getNumber("AGE", Integer.class)))
+                .from(SQLExpressions
+                        .select(member.memberId, member.username, member.age, member.teamId, window)
+                        .from(member)
+                        .where(innerWhere), ranked)
+                .where(filter.apply(ranked));
+        for (String column : orderColumns) {
+            query.orderBy(ranked.getNumber(column, Long.class).asc());
+        }
+        return query.fetch();
+    }
+}
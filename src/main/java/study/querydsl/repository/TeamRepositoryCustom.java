@@ -0,0 +1,16 @@
+package study.querydsl.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import study.querydsl.dto.TeamMembersDto;
+import study.querydsl.entity.Team;
+
+import java.util.List;
+
+public interface TeamRepositoryCustom {
+
+    List<Team> findByNameCached(String name);
+
+    // 팀 페이징 + 팀별 회원 목록 (컬렉션 fetch join 없이)
+    Page<TeamMembersDto> findTeamsWithMembers(Pageable pageable);
+}
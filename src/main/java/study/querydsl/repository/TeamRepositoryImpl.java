@@ -0,0 +1,84 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberDto;
+import study.querydsl.dto.QMemberDto;
+import study.querydsl.dto.TeamMembersDto;
+import study.querydsl.entity.Team;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+@Transactional(readOnly = true)
+public class TeamRepositoryImpl implements TeamRepositoryCustom {
+
+    private final JPAQueryFactory queryFactory;
+
+    public TeamRepositoryImpl(JPAQueryFactory queryFactory) {
+        this.queryFactory = queryFactory;
+    }
+
+    @Override
+    public List<Team> findByNameCached(String name) {
+        // 쿼리 캐시에는 결과 id만 저장되고 엔티티는 2차 캐시에서 꺼낸다.
+        // team 테이블이 변경되면(벌크 연산 포함) 자동으로 무효화된다.
+        return queryFactory
+                .selectFrom(team)
+                .where(team.name.eq(name))
+                .setHint(HibernateHints.HINT_CACHEABLE, true)
+                .fetch();
+    }
+
+    /*
+     * 컬렉션 fetch join 은 페이징을 메모리에서 하므로(HHH90003004) 두 번에 나눠 조회한다.
+     * 1. team 만 페이징
+     * 2. 그 팀들의 회원을 in 절 한 번으로 조회해서 팀별로 묶음
+     * 팀 크기와 상관없이 페이지당 쿼리 2번 (+ count)
+     */
+    @Override
+    public Page<TeamMembersDto> findTeamsWithMembers(Pageable pageable) {
+        List<Tuple> teams = queryFactory
+                .select(team.id, team.name)
+                .from(team)
+                .orderBy(team.name.asc(), team.id.asc())
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .fetch();
+
+        List<Long> teamIds = teams.stream().map(t -> t.get(team.id)).toList();
+        Map<Long, List<MemberDto>> membersByTeam = new HashMap<>();
+        if (!teamIds.isEmpty()) {
+            // transform(groupBy) 대신 메모리에서 묶는다. (Querydsl 5 의 transform 은 hibernate 6 에 없는 ScrollableResults API 사용)
+            QMemberDto memberDto = new QMemberDto(member.username, member.age);
+            for (Tuple row : queryFactory
+                    .select(member.team.id, memberDto)
+                    .from(member)
+                    .where(member.team.id.in(teamIds))
+                    .orderBy(member.id.asc())
+                    .fetch()) {
+                membersByTeam.computeIfAbsent(row.get(member.team.id), id -> new ArrayList<>()).add(row.get(memberDto));
+            }
+        }
+
+        List<TeamMembersDto> content = teams.stream()
+                .map(t -> new TeamMembersDto(
+                        t.get(team.id),
+                        t.get(team.name),
+                        membersByTeam.getOrDefault(t.get(team.id), List.of())))
+                .toList();
+
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> queryFactory.select(team.count()).from(team).fetchOne());
+    }
+}
@@ -0,0 +1,30 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.core.types.Predicate;
+import lombok.Getter;
+
+/*
+ * 벌크 연산(update/delete) 실행 후 발행되는 이벤트
+ * 벌크 연산은 영속성 컨텍스트와 캐시를 거치지 않으므로 이 이벤트를 받아서 정리한다.
+ */
+@Getter
+public class BulkOperationEvent {
+
+    public enum Type { UPDATE, DELETE }
+
+    private final Type type;
+    private final Class<?> entityType;
+    private final Predicate where; // null 이면 전체
+    private final long affected;
+
+    public BulkOperationEvent(Type type, Class<?> entityType, Predicate where, long affected) {
+        this.type = type;
+        this.entityType = entityType;
+        this.where = where;
+        this.affected = affected;
+    }
+
+    public boolean affects(Class<?> type) {
+        return type.isAssignableFrom(entityType);
+    }
+}
@@ -0,0 +1,232 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.core.types.EntityPath;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.PathBuilder;
+import com.querydsl.core.types.dsl.SimpleExpression;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.querydsl.jpa.impl.JPAUpdateClause;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.PluralAttribute;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.reflect.AnnotatedElement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/*
+ * 벌크 update/delete 는 이 컴포넌트를 통해 실행한다.
+ *
+ * bulkOperations.update(member, member.age.lt(28), c -> c.set(member.username, "비회원"));
+ *
+ * 1. 영속성 컨텍스트에 올라와 있는 엔티티 중 조건에 맞는 것만 미리 찾아둔다. (조건이 update 로 바뀔 수 있으므로 실행 전에)
+ * 2. 벌크 연산 실행
+ * 3. 찾아둔 엔티티만 refresh(update) / detach(delete) 한다.
+ *    em.flush(); em.clear(); 와 달리 나머지 엔티티(다른 회원, 팀 등)는 그대로 남는다.
+ *    이미 로딩된 역방향 컬렉션(Team.members 등)은 소속이 바뀌었거나 detach 된 원소가 있을 때만 소유자를 refresh 한다.
+ * 4. BulkOperationEvent 는 queryFactory(EventPublishingJPAQueryFactory)의 update/delete 절이 발행한다. (캐시 등 무효화)
+ */
+@Component
+@RequiredArgsConstructor
+public class BulkOperations {
+
+    public enum ContextSync { REFRESH, DETACH }
+
+    private static final int ID_CHUNK_SIZE = 500;
+
+    private final EntityManager em;
+    private final JPAQueryFactory queryFactory;
+    private final Map<Class<?>, List<InverseCollection>> inverseCollections = new ConcurrentHashMap<>();
+
+    @Transactional
+    public long update(EntityPath<?> entity, Predicate where, Consumer<JPAUpdateClause> set) {
+        return update(entity, where, set, ContextSync.REFRESH);
+    }
+
+    @Transactional
+    public long update(EntityPath<?> entity, Predicate where, Consumer<JPAUpdateClause> set, ContextSync sync) {
+        List<Object> stale = findManaged(entity, where);
+
+        JPAUpdateClause clause = queryFactory.update(entity);
+        set.accept(clause);
+        long affected = clause
+                .where(where)
+                .execute();
+
+        for (Object instance : stale) {
+            if (sync == ContextSync.REFRESH) {
+                em.refresh(instance);
+            } else {
+                em.detach(instance);
+            }
+        }
+        Set<Path<?>> updatedPaths = clause instanceof EventPublishingJPAUpdateClause publishing ? publishing.getUpdatedPaths() : null;
+        syncInverseCollections(entity.getType(), sync == ContextSync.DETACH ? stale : List.of(), false, updatedPaths);
+        return affected;
+    }
+
+    @Transactional
+    public long delete(EntityPath<?> entity, Predicate where) {
+        List<Object> stale = findManaged(entity, where);
+
+        long affected = queryFactory
+                .delete(entity)
+                .where(where)
+                .execute();
+
+        stale.forEach(em::detach);
+        syncInverseCollections(entity.getType(), stale, true, Set.of());
+        return affected;
+    }
+
+    // 영속성 컨텍스트에 있는 entity 타입 인스턴스 중 where 에 해당하는 것
+    private List<Object> findManaged(EntityPath<?> entity, Predicate where) {
+        Map<Object, Object> byId = new HashMap<>(); // id -> instance
+        for (Map.Entry<Object, EntityEntry> entry : em.unwrap(SessionImplementor.class)
+                .getPersistenceContextInternal()
+                .reentrantSafeEntityEntries()) {
+            if (entity.getType().isInstance(entry.getKey()) && entry.getValue().getId() != null) {
+                byId.put(entry.getValue().getId(), entry.getKey());
+            }
+        }
+        if (byId.isEmpty()) {
+            return List.of();
+        }
+        if (where == null) {
+            return new ArrayList<>(byId.values());
+        }
+
+        SimpleExpression<Object> id = idPath(entity);
+        List<Object> ids = new ArrayList<>(byId.keySet());
+        Set<Object> matched = new HashSet<>();
+        for (int from = 0; from < ids.size(); from += ID_CHUNK_SIZE) {
+            matched.addAll(queryFactory
+                    .select(id)
+                    .from(entity)
+                    .where(where, id.in(ids.subList(from, Math.min(from + ID_CHUNK_SIZE, ids.size()))))
+                    .fetch());
+        }
+
+        List<Object> result = new ArrayList<>(matched.size());
+        matched.forEach(matchedId -> result.add(byId.get(matchedId)));
+        return result;
+    }
+
+    /*
+     * 로딩된 역방향 컬렉션(Team.members)을 가진 소유자를 refresh 해서 다음 접근 때 컬렉션을 한 번에 다시 읽게 한다.
+     * - 연관관계(Member.team)를 set 한 update: 로딩된 같은 종류의 컬렉션 전부 (어느 팀으로 옮겨 갔는지 알 수 없음)
+     * - delete, detach 한 update: detach 된 원소를 담고 있던 컬렉션만
+     * 소속이 바뀌면(연관관계 update, delete) 컬렉션 2차 캐시도 비운다.
+     */
+    private void syncInverseCollections(Class<?> type, List<Object> detached, boolean delete, Set<Path<?>> updatedPaths) {
+        for (InverseCollection inverse : inverseCollections.computeIfAbsent(type, this::findInverseCollections)) {
+            boolean associationSet = !delete && inverse.isSetBy(updatedPaths);
+            if (delete || associationSet) {
+                em.getEntityManagerFactory().unwrap(SessionFactory.class).getCache().evictCollectionData(inverse.role());
+            }
+            if (!associationSet && detached.isEmpty()) {
+                continue;
+            }
+
+            Set<Object> owners = Collections.newSetFromMap(new IdentityHashMap<>());
+            SessionImplementor session = em.unwrap(SessionImplementor.class);
+            if (associationSet) {
+                for (Map.Entry<Object, EntityEntry> entry : session.getPersistenceContextInternal().reentrantSafeEntityEntries()) {
+                    if (inverse.isLoaded(entry.getKey(), em)) {
+                        owners.add(entry.getKey());
+                    }
+                }
+            }
+            for (Object element : detached) {
+                Object owner = session.getEntityPersister(null, element).getPropertyValue(element, inverse.mappedBy());
+                // 초기화되지 않은 프록시면 컬렉션도 로딩되지 않았다.
+                if (owner != null && Hibernate.isInitialized(owner) && inverse.isLoaded(Hibernate.unproxy(owner), em)) {
+                    owners.add(Hibernate.unproxy(owner));
+                }
+            }
+
+            if (!owners.isEmpty()) {
+                em.flush(); // refresh 가 소유자(Team)의 flush 되지 않은 변경을 덮어쓰지 않게 한다.
+            }
+            for (Object owner : owners) {
+                if (em.contains(owner)) {
+                    em.refresh(owner); // 컬렉션은 초기화되지 않은 상태로 바뀐다.
+                }
+            }
+        }
+    }
+
+    // type 을 원소로 갖는 @OneToMany(mappedBy) 컬렉션들 (예: Member -> Team.members)
+    private List<InverseCollection> findInverseCollections(Class<?> type) {
+        List<InverseCollection> result = new ArrayList<>();
+        for (EntityType<?> ownerType : em.getMetamodel().getEntities()) {
+            for (PluralAttribute<?, ?, ?> attribute : ownerType.getPluralAttributes()) {
+                if (!attribute.getElementType().getJavaType().isAssignableFrom(type)
+                        || !(attribute.getJavaMember() instanceof AnnotatedElement member)) {
+                    continue;
+                }
+                OneToMany oneToMany = member.getAnnotation(OneToMany.class);
+                if (oneToMany == null || oneToMany.mappedBy().isEmpty()) {
+                    continue;
+                }
+                result.add(new InverseCollection(ownerType.getJavaType(), attribute.getName(), oneToMany.mappedBy(),
+                        ownerType.getJavaType().getName() + "." + attribute.getName()));
+            }
+        }
+        return List.copyOf(result);
+    }
+
+    private String idName(Class<?> type) {
+        EntityType<?> entityType = em.getMetamodel().entity(type);
+        return entityType.getId(entityType.getIdType().getJavaType()).getName();
+    }
+
+    /**
+     * @param ownerType 컬렉션을 가진 엔티티 (Team)
+     * @param attribute 컬렉션 속성 (members)
+     * @param mappedBy  원소 쪽 연관관계 속성 (Member.team)
+     * @param role      2차 캐시 컬렉션 region 이름
+     */
+    private record InverseCollection(Class<?> ownerType, String attribute, String mappedBy, String role) {
+
+        boolean isLoaded(Object entity, EntityManager em) {
+            return ownerType.isInstance(entity)
+                    && em.getEntityManagerFactory().getPersistenceUnitUtil().isLoaded(entity, attribute);
+        }
+
+        // update 절이 원소 쪽 연관관계(member.team)를 set 했는지, 알 수 없으면(null) 했다고 본다.
+        boolean isSetBy(Set<Path<?>> updatedPaths) {
+            if (updatedPaths == null) {
+                return true;
+            }
+            for (Path<?> path : updatedPaths) {
+                Path<?> parent = path.getMetadata().getParent();
+                if (mappedBy.equals(path.getMetadata().getName()) && parent != null && parent.getMetadata().isRoot()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private SimpleExpression<Object> idPath(EntityPath<?> entity) {
+        return new PathBuilder<>(entity.getType(), entity.getMetadata()).getSimple(idName(entity.getType()), Object.class);
+    }
+}
@@ -0,0 +1,95 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.core.types.ExpressionUtils;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/*
+ * 벌크 update/delete 를 id 범위 단위로 나눠서 실행한다.
+ * 한 문장으로 전체를 처리하면 대상 전체에 락이 오래 걸리고 undo 로그가 커진다.
+ *
+ * 청크마다 새 트랜잭션에서
+ *   1. where and id > lastId 를 id 순으로 chunkSize 건 조회해서 범위 상한(hi)을 구하고
+ *   2. where and lastId < id <= hi 로 벌크 연산을 실행한 뒤 커밋한다.
+ * 커밋된 마지막 id 를 progress 로 알려주므로, 중단되면 그 id 부터 resumeAfter 로 이어서 실행할 수 있다.
+ */
+@Slf4j
+@Component
+public class ChunkedBulkExecutor {
+
+    private final JPAQueryFactory queryFactory;
+    private final BulkOperations bulkOperations;
+    private final TransactionTemplate chunkTx;
+
+    public ChunkedBulkExecutor(JPAQueryFactory queryFactory, BulkOperations bulkOperations,
+                               PlatformTransactionManager transactionManager) {
+        this.queryFactory = queryFactory;
+        this.bulkOperations = bulkOperations;
+        this.chunkTx = new TransactionTemplate(transactionManager);
+        this.chunkTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public ChunkedBulkProgress execute(ChunkedBulkJob job) {
+        ChunkedBulkProgress progress = new ChunkedBulkProgress(0, 0, 0, job.getResumeAfter());
+
+        while (true) {
+            ChunkedBulkProgress previous = progress;
+            ChunkedBulkProgress next = chunkTx.execute(status -> executeChunk(job, previous));
+            if (next == null) {
+                break; // 더 이상 대상 없음
+            }
+            progress = next;
+            job.getProgressListener().accept(progress);
+
+            if (!job.getThrottle().isZero() && !sleep(job)) {
+                log.warn("chunked bulk interrupted, resume after id {}", progress.getLastProcessedId());
+                break;
+            }
+        }
+        return progress;
+    }
+
+    private ChunkedBulkProgress executeChunk(ChunkedBulkJob job, ChunkedBulkProgress previous) {
+        NumberPath<Long> id = job.getId();
+        Long lastId = previous.getLastProcessedId();
+
+        List<Long> ids = queryFactory
+                .select(id)
+                .from(job.getEntity())
+                .where(job.getWhere(), lastId != null ? id.gt(lastId) : null)
+                .orderBy(id.asc())
+                .limit(job.getChunkSize())
+                .fetch();
+        if (ids.isEmpty()) {
+            return null;
+        }
+
+        Long hi = ids.get(ids.size() - 1);
+        Predicate chunkWhere = ExpressionUtils.allOf(
+                job.getWhere(),
+                id.loe(hi).and(lastId != null ? id.gt(lastId) : null));
+        long affected = job.isDelete()
+                ? bulkOperations.delete(job.getEntity(), chunkWhere)
+                : bulkOperations.update(job.getEntity(), chunkWhere, job.getSet(), BulkOperations.ContextSync.DETACH);
+
+        return new ChunkedBulkProgress(previous.getChunks() + 1, affected, previous.getTotalAffected() + affected, hi);
+    }
+
+    private boolean sleep(ChunkedBulkJob job) {
+        try {
+            Thread.sleep(job.getThrottle().toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
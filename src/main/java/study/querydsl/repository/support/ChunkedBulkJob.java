@@ -0,0 +1,80 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.core.types.EntityPath;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.jpa.impl.JPAUpdateClause;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/*
+ * 청크 단위 벌크 작업 정의
+ *
+ * ChunkedBulkJob.update(member, member.id, c -> c.set(member.age, member.age.add(1)))
+ *         .where(member.age.gt(18))
+ *         .chunkSize(1_000)
+ *         .throttle(Duration.ofMillis(50))
+ *         .resumeAfter(savedCheckpoint)                  // 재시작 시 마지막으로 처리한 id
+ *         .onProgress(p -> save(p.getLastProcessedId())); // 청크 커밋마다 호출
+ */
+@Getter
+public class ChunkedBulkJob {
+
+    private final EntityPath<?> entity;
+    private final NumberPath<Long> id;
+    private final Consumer<JPAUpdateClause> set; // null 이면 delete
+
+    private Predicate where;
+    private int chunkSize = 1_000;
+    private Duration throttle = Duration.ZERO;
+    private Long resumeAfter;
+    private Consumer<ChunkedBulkProgress> progressListener = progress -> { };
+
+    private ChunkedBulkJob(EntityPath<?> entity, NumberPath<Long> id, Consumer<JPAUpdateClause> set) {
+        this.entity = entity;
+        this.id = id;
+        this.set = set;
+    }
+
+    public static ChunkedBulkJob update(EntityPath<?> entity, NumberPath<Long> id, Consumer<JPAUpdateClause> set) {
+        return new ChunkedBulkJob(entity, id, set);
+    }
+
+    public static ChunkedBulkJob delete(EntityPath<?> entity, NumberPath<Long> id) {
+        return new ChunkedBulkJob(entity, id, null);
+    }
+
+    public boolean isDelete() {
+        return set == null;
+    }
+
+    public ChunkedBulkJob where(Predicate where) {
+        this.where = where;
+        return this;
+    }
+
+    public ChunkedBulkJob chunkSize(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    public ChunkedBulkJob throttle(Duration throttle) {
+        this.throttle = throttle;
+        return this;
+    }
+
+    public ChunkedBulkJob resumeAfter(Long lastProcessedId) {
+        this.resumeAfter = lastProcessedId;
+        return this;
+    }
+
+    public ChunkedBulkJob onProgress(Consumer<ChunkedBulkProgress> progressListener) {
+        this.progressListener = progressListener;
+        return this;
+    }
+}
@@ -0,0 +1,21 @@
+package study.querydsl.repository.support;
+
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+public class ChunkedBulkProgress {
+
+    private final int chunks;          // 지금까지 커밋된 청크 수
+    private final long affected;       // 이번 청크에서 변경된 행 수
+    private final long totalAffected;  // 누적 변경 행 수
+    private final Long lastProcessedId; // 이 id 까지 커밋됨 -> 재시작 지점
+
+    public ChunkedBulkProgress(int chunks, long affected, long totalAffected, Long lastProcessedId) {
+        this.chunks = chunks;
+        this.affected = affected;
+        this.totalAffected = totalAffected;
+        this.lastProcessedId = lastProcessedId;
+    }
+}
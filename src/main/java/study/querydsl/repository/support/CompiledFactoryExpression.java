@@ -0,0 +1,55 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpressionBase;
+import com.querydsl.core.types.Visitor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/*
+ * CompiledProjections 가 만든 프로젝션
+ * 행(Object[]) -> DTO 변환은 미리 만들어 둔 mapper 가 한다.
+ */
+class CompiledFactoryExpression<T> extends FactoryExpressionBase<T> {
+
+    private final List<Expression<?>> args;
+    private final Function<Object[], T> mapper;
+
+    CompiledFactoryExpression(Class<? extends T> type, List<Expression<?>> args, Function<Object[], T> mapper) {
+        super(type);
+        this.args = args;
+        this.mapper = mapper;
+    }
+
+    @Override
+    public List<Expression<?>> getArgs() {
+        return args;
+    }
+
+    @Override
+    public T newInstance(Object... args) {
+        return mapper.apply(args);
+    }
+
+    @Override
+    public <R, C> R accept(Visitor<R, C> v, C context) {
+        return v.visit(this, context);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        return obj instanceof CompiledFactoryExpression<?> other
+                && getType().equals(other.getType())
+                && args.equals(other.args)
+                && mapper.equals(other.mapper);
+    }
+
+    @Override
+    public int hashCode() {
+        return getType().hashCode() * 31 + args.hashCode();
+    }
+}
@@ -0,0 +1,210 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.core.types.Operation;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.Path;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static java.lang.invoke.MethodType.methodType;
+
+/*
+ * Projections.bean / fields / constructor 대신 쓰는 프로젝션
+ * Projections.* 는 행마다 리플렉션(Method.invoke, Field.set, Constructor.newInstance)으로 DTO 를 채운다.
+ * 여기서는 (DTO 타입, 프로퍼티 이름) 조합마다 한 번만 변환기를 만들어 캐시한다.
+ *
+ * - bean: 기본 생성자 + setter 를 LambdaMetafactory 로 Supplier / BiConsumer 로 만든다. (public 이어야 함)
+ * - fields: 필드 setter MethodHandle (private 필드도 가능)
+ * - constructor: 생성자 MethodHandle
+ *
+ * 프로퍼티 이름은 path 이름, 별칭이 있으면 별칭을 쓴다. -> member.username.as("name")
+ * bean / fields 는 Projections.bean 처럼 null 값은 설정하지 않는다. (primitive 기본값 유지)
+ */
+public final class CompiledProjections {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final Map<Key, Function<Object[], ?>> MAPPERS = new ConcurrentHashMap<>();
+
+    private enum Kind { BEAN, FIELDS, CONSTRUCTOR }
+
+    private record Key(Kind kind, Class<?> type, List<?> signature) {
+    }
+
+    private CompiledProjections() {
+    }
+
+    public static <T> FactoryExpression<T> bean(Class<? extends T> type, Expression<?>... exprs) {
+        return create(Kind.BEAN, type, exprs);
+    }
+
+    public static <T> FactoryExpression<T> fields(Class<? extends T> type, Expression<?>... exprs) {
+        return create(Kind.FIELDS, type, exprs);
+    }
+
+    public static <T> FactoryExpression<T> constructor(Class<? extends T> type, Expression<?>... exprs) {
+        return create(Kind.CONSTRUCTOR, type, exprs);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> FactoryExpression<T> create(Kind kind, Class<? extends T> type, Expression<?>[] exprs) {
+        List<?> signature = kind == Kind.CONSTRUCTOR
+                ? Arrays.stream(exprs).map(Expression::getType).toList()
+                : Arrays.stream(exprs).map(CompiledProjections::propertyName).toList();
+        Function<Object[], T> mapper = (Function<Object[], T>) MAPPERS.computeIfAbsent(
+                new Key(kind, type, signature), CompiledProjections::compile);
+        return new CompiledFactoryExpression<>(type, List.of(exprs), mapper);
+    }
+
+    static String propertyName(Expression<?> expr) {
+        if (expr instanceof Operation<?> operation && operation.getOperator() == Ops.ALIAS) {
+            return propertyName(operation.getArg(1));
+        }
+        if (expr instanceof Path<?> path) {
+            return path.getMetadata().getName();
+        }
+        throw new IllegalArgumentException("unsupported expression, use as(\"property\"): " + expr);
+    }
+
+    private static Function<Object[], ?> compile(Key key) {
+        try {
+            return switch (key.kind()) {
+                case BEAN -> compileBean(key.type(), key.signature());
+                case FIELDS -> compileFields(key.type(), key.signature());
+                case CONSTRUCTOR -> compileConstructor(key.type(), key.signature());
+            };
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalArgumentException("cannot create projection for " + key.type().getName(), e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object[], ?> compileBean(Class<?> type, List<?> names) throws Throwable {
+        Supplier<Object> factory = (Supplier<Object>) LambdaMetafactory.metafactory(
+                        LOOKUP, "get", methodType(Supplier.class), methodType(Object.class),
+                        LOOKUP.findConstructor(type, methodType(void.class)), methodType(type))
+                .getTarget().invokeExact();
+
+        BiConsumer<Object, Object>[] setters = new BiConsumer[names.size()];
+        for (int i = 0; i < setters.length; i++) {
+            Method setter = findSetter(type, (String) names.get(i));
+            CallSite site = LambdaMetafactory.metafactory(
+                    LOOKUP, "accept", methodType(BiConsumer.class), methodType(void.class, Object.class, Object.class),
+                    LOOKUP.unreflect(setter), methodType(void.class, type, wrap(setter.getParameterTypes()[0])));
+            setters[i] = (BiConsumer<Object, Object>) site.getTarget().invokeExact();
+        }
+
+        return row -> {
+            Object bean = factory.get();
+            for (int i = 0; i < setters.length; i++) {
+                if (row[i] != null) {
+                    setters[i].accept(bean, row[i]);
+                }
+            }
+            return bean;
+        };
+    }
+
+    private static Function<Object[], ?> compileFields(Class<?> type, List<?> names) throws Throwable {
+        MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, LOOKUP);
+        MethodHandle factory = lookup.findConstructor(type, methodType(void.class)).asType(methodType(Object.class));
+
+        MethodHandle[] setters = new MethodHandle[names.size()];
+        for (int i = 0; i < setters.length; i++) {
+            setters[i] = lookup.unreflectSetter(findField(type, (String) names.get(i)))
+                    .asType(methodType(void.class, Object.class, Object.class));
+        }
+
+        return row -> {
+            try {
+                Object bean = (Object) factory.invokeExact();
+                for (int i = 0; i < setters.length; i++) {
+                    if (row[i] != null) {
+                        setters[i].invokeExact(bean, row[i]);
+                    }
+                }
+                return bean;
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+
+    private static Function<Object[], ?> compileConstructor(Class<?> type, List<?> argTypes) throws Throwable {
+        Constructor<?> constructor = findConstructor(type, argTypes);
+        MethodHandle handle = LOOKUP.unreflectConstructor(constructor);
+        MethodHandle spread = handle.asType(handle.type().generic()).asSpreader(Object[].class, argTypes.size());
+
+        return row -> {
+            try {
+                return (Object) spread.invokeExact(row);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+
+    private static Method findSetter(Class<?> type, String property) {
+        String name = "set" + Character.toUpperCase(property.charAt(0)) + property.substring(1);
+        for (Method method : type.getMethods()) {
+            if (method.getName().equals(name) && method.getParameterCount() == 1 && !Modifier.isStatic(method.getModifiers())) {
+                return method;
+            }
+        }
+        throw new IllegalArgumentException("no public setter " + name + " on " + type.getName());
+    }
+
+    private static Field findField(Class<?> type, String property) {
+        for (Class<?> c = type; c != Object.class; c = c.getSuperclass()) {
+            try {
+                return c.getDeclaredField(property);
+            } catch (NoSuchFieldException ignored) {
+                // 상위 클래스에서 찾는다.
+            }
+        }
+        throw new IllegalArgumentException("no field " + property + " on " + type.getName());
+    }
+
+    private static Constructor<?> findConstructor(Class<?> type, List<?> argTypes) {
+        for (Constructor<?> constructor : type.getConstructors()) {
+            Class<?>[] params = constructor.getParameterTypes();
+            if (params.length != argTypes.size()) {
+                continue;
+            }
+            boolean matches = true;
+            for (int i = 0; i < params.length && matches; i++) {
+                matches = wrap(params[i]).isAssignableFrom(wrap((Class<?>) argTypes.get(i)));
+            }
+            if (matches) {
+                return constructor;
+            }
+        }
+        throw new IllegalArgumentException("no public constructor on " + type.getName() + " for " + argTypes);
+    }
+
+    private static Class<?> wrap(Class<?> type) {
+        return type.isPrimitive() ? methodType(type).wrap().returnType() : type;
+    }
+}
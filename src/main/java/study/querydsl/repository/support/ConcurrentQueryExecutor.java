@@ -0,0 +1,108 @@
+package study.querydsl.repository.support;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/*
+ * 서로 독립적인 조회 쿼리(content, count, 집계 등)를 동시에 실행한다.
+ * 작업마다 별도 스레드에서 읽기 전용 트랜잭션을 열기 때문에 EntityManager/커넥션도 각자 사용한다.
+ *
+ * - querydsl.concurrent-query.enabled=false(기본)이면 호출 스레드에서 순차 실행한다.
+ * - 호출 스레드가 이미 트랜잭션(커넥션)을 가지고 있으면 순차 실행한다.
+ *   커넥션을 쥔 채로 추가 커넥션을 기다리면 풀이 고갈됐을 때 서로 기다리는 상황이 생긴다.
+ * - 동시에 사용하는 커넥션은 maxConcurrency 로 제한한다.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(ConcurrentQueryProperties.class)
+public class ConcurrentQueryExecutor implements DisposableBean {
+
+    private final ConcurrentQueryProperties properties;
+    private final TransactionTemplate readOnlyTx;
+    private final Semaphore permits;
+    private final ExecutorService executor;
+
+    public ConcurrentQueryExecutor(ConcurrentQueryProperties properties, PlatformTransactionManager transactionManager) {
+        this.properties = properties;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.permits = new Semaphore(properties.getMaxConcurrency(), true);
+        this.executor = properties.isEnabled() ? createExecutor(properties) : null;
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> query) {
+        if (executor == null || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return CompletableFuture.completedFuture(query.get());
+        }
+        return CompletableFuture.supplyAsync(() -> runWithPermit(query), executor);
+    }
+
+    // CompletionException 을 벗겨서 원래 예외를 던진다.
+    public static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private <T> T runWithPermit(Supplier<T> query) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting for a query permit", e);
+        }
+        try {
+            return readOnlyTx.execute(status -> query.get());
+        } finally {
+            permits.release();
+        }
+    }
+
+    private static ExecutorService createExecutor(ConcurrentQueryProperties properties) {
+        if (properties.isVirtualThreads()) {
+            try {
+                // Java 21+ (소스 호환성 17 이라 리플렉션으로 호출)
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                log.info("virtual threads are not available on Java {}, using a platform thread pool",
+                        Runtime.version().feature());
+            }
+        }
+
+        AtomicInteger sequence = new AtomicInteger();
+        return Executors.newFixedThreadPool(properties.getMaxConcurrency(), runnable -> {
+            Thread thread = new Thread(runnable, "concurrent-query-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public boolean isConcurrent() {
+        return executor != null;
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package study.querydsl.repository.support;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter @Setter
+@ConfigurationProperties("querydsl.concurrent-query")
+public class ConcurrentQueryProperties {
+
+    private boolean enabled = false; // 기본은 호출 스레드에서 순차 실행
+    private boolean virtualThreads = true; // Java 21+ 에서만 사용, 그 외에는 고정 크기 스레드 풀
+    private int maxConcurrency = 4; // 동시에 사용할 커넥션 수 상한, 커넥션 풀 크기보다 작게
+}
@@ -0,0 +1,38 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.core.types.EntityPath;
+import com.querydsl.core.types.ExpressionUtils;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.jpa.JPAProvider;
+import com.querydsl.jpa.JPQLTemplates;
+import com.querydsl.jpa.impl.JPADeleteClause;
+import jakarta.persistence.EntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+
+// 실행 후 BulkOperationEvent(where 포함)를 발행한다.
+public class EventPublishingJPADeleteClause extends JPADeleteClause {
+
+    private final Class<?> entityType;
+    private final ApplicationEventPublisher eventPublisher;
+    private Predicate where;
+
+    protected EventPublishingJPADeleteClause(EntityManager em, EntityPath<?> path, JPQLTemplates templates,
+                                             ApplicationEventPublisher eventPublisher) {
+        super(em, path, templates != null ? templates : JPAProvider.getTemplates(em));
+        this.entityType = path.getType();
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public JPADeleteClause where(Predicate... o) {
+        where = ExpressionUtils.and(where, ExpressionUtils.allOf(o));
+        return super.where(o);
+    }
+
+    @Override
+    public long execute() {
+        long affected = super.execute();
+        eventPublisher.publishEvent(new BulkOperationEvent(BulkOperationEvent.Type.DELETE, entityType, where, affected));
+        return affected;
+    }
+}
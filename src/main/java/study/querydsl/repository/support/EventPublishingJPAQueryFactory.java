@@ -0,0 +1,53 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.core.types.EntityPath;
+import com.querydsl.jpa.JPQLTemplates;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+
+/*
+ * update/delete 실행 후 BulkOperationEvent 를 발행하는 JPAQueryFactory (빈으로 항상 등록된다.)
+ * BulkOperations 를 거치지 않은 queryFactory.update/delete 도 캐시(MemberStatsRepository),
+ * 검색 인덱스(UsernameIndex)가 정리되게 한다. 메트릭(InstrumentedJPAQueryFactory)은 이 위에 덧붙인다.
+ */
+public class EventPublishingJPAQueryFactory extends JPAQueryFactory {
+
+    private final EntityManager em;
+    private final JPQLTemplates templates;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public EventPublishingJPAQueryFactory(EntityManager em, ApplicationEventPublisher eventPublisher) {
+        this(em, null, eventPublisher);
+    }
+
+    // templates 가 null 이면 EntityManager 에 맞는 기본값 (JPAProvider.getTemplates)
+    public EventPublishingJPAQueryFactory(EntityManager em, JPQLTemplates templates, ApplicationEventPublisher eventPublisher) {
+        super(templates, em);
+        this.em = em;
+        this.templates = templates;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public EventPublishingJPAUpdateClause update(EntityPath<?> path) {
+        return new EventPublishingJPAUpdateClause(em, path, templates, eventPublisher);
+    }
+
+    @Override
+    public EventPublishingJPADeleteClause delete(EntityPath<?> path) {
+        return new EventPublishingJPADeleteClause(em, path, templates, eventPublisher);
+    }
+
+    protected EntityManager entityManager() {
+        return em;
+    }
+
+    protected JPQLTemplates templates() {
+        return templates;
+    }
+
+    protected ApplicationEventPublisher eventPublisher() {
+        return eventPublisher;
+    }
+}
@@ -0,0 +1,74 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.core.types.EntityPath;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.ExpressionUtils;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.jpa.JPAProvider;
+import com.querydsl.jpa.JPQLTemplates;
+import com.querydsl.jpa.impl.JPAUpdateClause;
+import jakarta.persistence.EntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+// 실행 후 BulkOperationEvent(where 포함)를 발행한다. set 한 경로는 BulkOperations 가 연관관계 변경 여부를 판단할 때 쓴다.
+public class EventPublishingJPAUpdateClause extends JPAUpdateClause {
+
+    private final Class<?> entityType;
+    private final ApplicationEventPublisher eventPublisher;
+    private Predicate where;
+    private final Set<Path<?>> updatedPaths = new LinkedHashSet<>();
+
+    protected EventPublishingJPAUpdateClause(EntityManager em, EntityPath<?> path, JPQLTemplates templates,
+                                             ApplicationEventPublisher eventPublisher) {
+        super(em, path, templates != null ? templates : JPAProvider.getTemplates(em));
+        this.entityType = path.getType();
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public <T> JPAUpdateClause set(Path<T> path, T value) {
+        updatedPaths.add(path);
+        return super.set(path, value);
+    }
+
+    @Override
+    public <T> JPAUpdateClause set(Path<T> path, Expression<? extends T> expression) {
+        updatedPaths.add(path);
+        return super.set(path, expression);
+    }
+
+    @Override
+    public <T> JPAUpdateClause setNull(Path<T> path) {
+        updatedPaths.add(path);
+        return super.setNull(path);
+    }
+
+    @Override
+    public JPAUpdateClause set(List<? extends Path<?>> paths, List<?> values) {
+        updatedPaths.addAll(paths);
+        return super.set(paths, values);
+    }
+
+    public Set<Path<?>> getUpdatedPaths() {
+        return Collections.unmodifiableSet(updatedPaths);
+    }
+
+    @Override
+    public JPAUpdateClause where(Predicate... o) {
+        where = ExpressionUtils.and(where, ExpressionUtils.allOf(o));
+        return super.where(o);
+    }
+
+    @Override
+    public long execute() {
+        long affected = super.execute();
+        eventPublisher.publishEvent(new BulkOperationEvent(BulkOperationEvent.Type.UPDATE, entityType, where, affected));
+        return affected;
+    }
+}
@@ -0,0 +1,66 @@
+package study.querydsl.repository.support;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Base64;
+
+/*
+ * keyset 커서 인코딩
+ * 마지막으로 조회한 행의 정렬 키 값들을 타입 정보와 함께 직렬화해서 URL-safe Base64 문자열로 만든다.
+ * 클라이언트는 값의 의미를 알 필요 없이 받은 토큰을 그대로 다음 요청에 넘겨주면 된다.
+ */
+public final class KeysetCursor {
+
+    private static final byte STRING = 'S';
+    private static final byte INTEGER = 'I';
+    private static final byte LONG = 'L';
+
+    private KeysetCursor() {
+    }
+
+    public static String encode(Object[] values) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(values.length);
+            for (Object value : values) {
+                if (value instanceof String s) {
+                    out.writeByte(STRING);
+                    out.writeUTF(s);
+                } else if (value instanceof Integer i) {
+                    out.writeByte(INTEGER);
+                    out.writeInt(i);
+                } else if (value instanceof Long l) {
+                    out.writeByte(LONG);
+                    out.writeLong(l);
+                } else {
+                    throw new IllegalArgumentException("keyset 정렬 키로 사용할 수 없는 값입니다: " + value);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    public static Object[] decode(String cursor) {
+        try (DataInputStream in = new DataInputStream(
+                new ByteArrayInputStream(Base64.getUrlDecoder().decode(cursor)))) {
+            Object[] values = new Object[in.readUnsignedByte()];
+            for (int i = 0; i < values.length; i++) {
+                byte type = in.readByte();
+                values[i] = switch (type) {
+                    case STRING -> in.readUTF();
+                    case INTEGER -> in.readInt();
+                    case LONG -> in.readLong();
+                    default -> throw new IllegalArgumentException("잘못된 커서입니다: " + cursor);
+                };
+            }
+            return values;
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("잘못된 커서입니다: " + cursor, e);
+        }
+    }
+}
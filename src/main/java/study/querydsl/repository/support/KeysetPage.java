@@ -0,0 +1,21 @@
+package study.querydsl.repository.support;
+
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+public class KeysetPage<T> {
+
+    private final List<T> content;
+    private final String nextCursor; // 마지막 페이지면 null
+
+    public KeysetPage(List<T> content, String nextCursor) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
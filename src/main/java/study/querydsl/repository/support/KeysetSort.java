@@ -0,0 +1,107 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.ExpressionUtils;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.jpa.impl.JPAQuery;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/*
+ * keyset(seek) 페이징
+ * offset 방식은 앞 페이지의 행을 모두 읽고 버리기 때문에 뒤로 갈수록 느려진다.
+ * 대신 "마지막으로 본 정렬 키 다음부터" 조건(seek predicate)을 만들어 바로 다음 행부터 읽는다.
+ *
+ * 정렬 (k1 desc, k2 desc, id desc), 마지막 값 (v1, v2, vid) 이면
+ *   k1 < v1
+ *   or (k1 = v1 and k2 < v2)
+ *   or (k1 = v1 and k2 = v2 and id < vid)
+ *
+ * - 마지막 키(tiebreaker)는 유일해야 한다. 보통 PK를 사용
+ * - 정렬 키 컬럼은 null이 없어야 한다. (null은 비교 연산으로 넘어갈 수 없음)
+ * - 정렬 키에 맞는 인덱스가 있어야 효과가 있다.
+ */
+public class KeysetSort<T> {
+
+    private final List<OrderSpecifier<?>> orders;
+    private final List<Function<T, ?>> extractors;
+
+    private KeysetSort(List<OrderSpecifier<?>> orders, List<Function<T, ?>> extractors) {
+        this.orders = orders;
+        this.extractors = extractors;
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    public KeysetPage<T> fetch(JPAQuery<T> query, String cursor, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("페이지 크기는 1 이상이어야 합니다: " + size);
+        }
+        if (cursor != null) {
+            query.where(seekPredicate(KeysetCursor.decode(cursor)));
+        }
+
+        List<T> rows = query
+                .orderBy(orders.toArray(OrderSpecifier[]::new))
+                .limit(size + 1) // 한 건 더 조회해서 다음 페이지 여부를 판단 (count 쿼리 불필요)
+                .fetch();
+
+        if (rows.size() <= size) {
+            return new KeysetPage<>(rows, null);
+        }
+        List<T> content = new ArrayList<>(rows.subList(0, size));
+        return new KeysetPage<>(content, cursorOf(content.get(size - 1)));
+    }
+
+    public String cursorOf(T row) {
+        Object[] values = new Object[extractors.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = extractors.get(i).apply(row);
+        }
+        return KeysetCursor.encode(values);
+    }
+
+    public Predicate seekPredicate(Object[] values) {
+        if (values.length != orders.size()) {
+            throw new IllegalArgumentException("커서의 키 개수가 정렬 조건과 다릅니다.");
+        }
+
+        Predicate seek = null;
+        Predicate equalPrefix = null;
+        for (int i = 0; i < orders.size(); i++) {
+            OrderSpecifier<?> order = orders.get(i);
+            Expression<?> target = order.getTarget();
+            Expression<?> value = Expressions.constant(values[i]);
+
+            Predicate next = Expressions.booleanOperation(order.isAscending() ? Ops.GT : Ops.LT, target, value);
+            seek = ExpressionUtils.anyOf(seek, ExpressionUtils.allOf(equalPrefix, next));
+            equalPrefix = ExpressionUtils.allOf(equalPrefix, Expressions.booleanOperation(Ops.EQ, target, value));
+        }
+        return seek;
+    }
+
+    public static class Builder<T> {
+
+        private final List<OrderSpecifier<?>> orders = new ArrayList<>();
+        private final List<Function<T, ?>> extractors = new ArrayList<>();
+
+        public Builder<T> orderBy(OrderSpecifier<?> order, Function<T, ?> extractor) {
+            orders.add(order);
+            extractors.add(extractor);
+            return this;
+        }
+
+        // 마지막 정렬 키(유일 값)를 추가하고 완성
+        public KeysetSort<T> tiebreaker(OrderSpecifier<?> order, Function<T, ?> extractor) {
+            orderBy(order, extractor);
+            return new KeysetSort<>(List.copyOf(orders), List.copyOf(extractors));
+        }
+    }
+}
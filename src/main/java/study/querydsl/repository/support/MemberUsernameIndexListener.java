@@ -0,0 +1,45 @@
+package study.querydsl.repository.support;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import study.querydsl.entity.Member;
+
+import java.util.function.Consumer;
+
+/*
+ * Member 변경을 UsernameIndex 에 반영한다. (@EntityListeners, 스프링 빈 컨테이너가 생성)
+ * 롤백된 변경이 검색되지 않도록 트랜잭션이 있으면 모아 두었다가 커밋 후에 한 번에 반영한다.
+ *
+ * EntityManagerFactory 를 만드는 중에 생성되므로 UsernameIndex(-> JPAQueryFactory -> EntityManager)는 나중에 꺼낸다.
+ */
+public class MemberUsernameIndexListener {
+
+    private final ObjectProvider<UsernameIndex> usernameIndex;
+
+    public MemberUsernameIndexListener(ObjectProvider<UsernameIndex> usernameIndex) {
+        this.usernameIndex = usernameIndex;
+    }
+
+    @PostPersist
+    @PostUpdate // changeTeam() 처럼 username 이 그대로인 변경도 들어오지만 같은 값으로 다시 색인할 뿐이다.
+    public void onSave(Member member) {
+        Long id = member.getId();
+        String username = member.getUsername();
+        afterCommit(index -> index.put(id, username));
+    }
+
+    @PostRemove
+    public void onRemove(Member member) {
+        Long id = member.getId();
+        afterCommit(index -> index.remove(id));
+    }
+
+    private void afterCommit(Consumer<UsernameIndex> change) {
+        UsernameIndex index = usernameIndex.getIfAvailable();
+        if (index != null) {
+            index.onCommit(change);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package study.querydsl.repository.support;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.querydsl.core.types.ParamExpression;
+import com.querydsl.jpa.JPQLQuery;
+import com.querydsl.jpa.JPQLTemplates;
+import jakarta.persistence.EntityManager;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/*
+ * 동적 쿼리의 "모양"(어떤 조건이 들어갔는지) 별로 직렬화된 JPQL을 캐시한다.
+ * 값은 Param 으로 선언해서 매번 바인딩만 하므로, 같은 모양이면 표현식 트리 생성/직렬화를 건너뛴다.
+ * JPQL 문자열이 같으므로 hibernate 의 HQL 해석 캐시(query plan cache)도 그대로 재사용된다.
+ *
+ * 주의: shapeKey 는 쿼리 구조를 완전히 구분해야 한다. 값이 아니라 조건 유무 등으로 만든다.
+ * 잘못 만든 키로 메모리가 계속 늘지 않도록 크기를 제한한다. (querydsl.shape-cache.maximum-size)
+ * 직렬화는 queryFactory 와 같은 JPQLTemplates 빈을 사용한다.
+ */
+@Component
+@EnableConfigurationProperties(QueryShapeCacheProperties.class)
+public class QueryShapeCache {
+
+    private final Cache<Object, SerializedQuery<?>> cache;
+    private final EntityManager em;
+    private final JPQLTemplates templates;
+
+    public QueryShapeCache(EntityManager em, JPQLTemplates templates, QueryShapeCacheProperties properties) {
+        this.em = em;
+        this.templates = templates;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> List<T> fetch(Object shapeKey, Supplier<JPQLQuery<T>> template, Map<ParamExpression<?>, Object> params) {
+        SerializedQuery<T> query = (SerializedQuery<T>) cache.get(shapeKey,
+                key -> SerializedQuery.of(template.get(), templates));
+        return query.fetch(query.bind(em.createQuery(query.getJpql()), params));
+    }
+
+    public int size() {
+        cache.cleanUp(); // 대기 중인 eviction 반영
+        return (int) cache.estimatedSize();
+    }
+}
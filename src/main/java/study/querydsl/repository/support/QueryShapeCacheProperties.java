@@ -0,0 +1,12 @@
+package study.querydsl.repository.support;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter @Setter
+@ConfigurationProperties("querydsl.shape-cache")
+public class QueryShapeCacheProperties {
+
+    private long maximumSize = 500; // 모양(shapeKey) 수 상한, 넘으면 오래 쓰지 않은 것부터 버린다
+}
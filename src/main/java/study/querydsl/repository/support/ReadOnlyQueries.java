@@ -0,0 +1,73 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.jpa.JPQLQuery;
+import com.querydsl.jpa.JPQLTemplates;
+import com.querydsl.jpa.impl.JPAQuery;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+
+/*
+ * 조회 전용 쿼리
+ *
+ * 1. 메서드 단위: @Transactional(readOnly = true)
+ *    스프링이 세션을 read-only, FlushMode.MANUAL 로 설정한다. (스냅샷 없음, 커밋 시 flush 없음)
+ *
+ * 2. 쿼리 단위: ReadOnlyQueries.readOnly(query)
+ *    쓰기 트랜잭션 안에서도 이 쿼리로 읽은 엔티티는 스냅샷을 만들지 않고 dirty checking 대상에서 빠진다.
+ *    쿼리 전에 auto flush 도 하지 않으므로 아직 flush 되지 않은 변경은 보이지 않을 수 있다.
+ *
+ * 3. DTO 프로젝션: fetchStateless(query)
+ *    영속성 컨텍스트가 없는 StatelessSession 으로 실행한다.
+ *    트랜잭션 안이면 그 트랜잭션의 커넥션을 같이 쓰고(커넥션을 하나 더 잡지 않음), 밖이면 조회하는 동안만 커넥션을 쓴다.
+ *    현재 영속성 컨텍스트의 flush 되지 않은 변경은 보이지 않는다.
+ *    queryFactory 를 거치지 않으므로 querydsl.query 메트릭에는 남지 않는다. (SQL 은 p6spy 를 지나므로 QueryCounter 는 센다)
+ */
+@Component
+public class ReadOnlyQueries {
+
+    private final SessionFactory sessionFactory;
+    private final EntityManager em;
+    private final JPQLTemplates templates;
+
+    public ReadOnlyQueries(EntityManagerFactory entityManagerFactory, EntityManager em, JPQLTemplates templates) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.em = em;
+        this.templates = templates;
+    }
+
+    public static <T> JPAQuery<T> readOnly(JPAQuery<T> query) {
+        return query
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setHint(HibernateHints.HINT_FLUSH_MODE, FlushMode.MANUAL);
+    }
+
+    public <T> List<T> fetchStateless(JPQLQuery<T> query) {
+        SerializedQuery<T> serialized = SerializedQuery.of(query, templates);
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            try (StatelessSession session = sessionFactory.openStatelessSession()) {
+                return fetch(serialized, session);
+            }
+        }
+        // 트랜잭션의 커넥션을 빌려 쓴다. (StatelessSession 을 닫아도 커넥션은 닫히지 않는다)
+        return em.unwrap(Session.class).doReturningWork(connection -> {
+            try (StatelessSession session = sessionFactory.openStatelessSession(connection)) {
+                return fetch(serialized, session);
+            }
+        });
+    }
+
+    @SuppressWarnings("deprecation") // createQuery(String): jakarta.persistence.Query 로 받기 위해 사용
+    private static <T> List<T> fetch(SerializedQuery<T> serialized, StatelessSession session) {
+        return serialized.fetch(serialized.bind(session.createQuery(serialized.getJpql()), Map.of()));
+    }
+}
@@ -0,0 +1,82 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.QueryModifiers;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.core.types.ParamExpression;
+import com.querydsl.jpa.JPQLQuery;
+import com.querydsl.jpa.JPQLSerializer;
+import com.querydsl.jpa.JPQLTemplates;
+import com.querydsl.jpa.impl.JPAUtil;
+import jakarta.persistence.Query;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Querydsl 쿼리를 JPQL 문자열로 직렬화한 결과
+ * 표현식 트리는 한 번만 직렬화하고, 실행할 때는 파라미터(Param)만 다시 바인딩한다.
+ * JPAQuery.fetch()가 내부에서 하는 일(createQuery, setConstants, FactoryExpression 변환)을 나눠 놓은 것.
+ */
+public final class SerializedQuery<T> {
+
+    private final String jpql;
+    private final List<Object> constants;
+    private final QueryModifiers modifiers;
+    private final FactoryExpression<T> factory; // DTO 프로젝션이 아니면 null
+
+    private SerializedQuery(String jpql, List<Object> constants, QueryModifiers modifiers, FactoryExpression<T> factory) {
+        this.jpql = jpql;
+        this.constants = constants;
+        this.modifiers = modifiers;
+        this.factory = factory;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> SerializedQuery<T> of(JPQLQuery<T> query, JPQLTemplates templates) {
+        QueryMetadata metadata = query.getMetadata();
+        JPQLSerializer serializer = new JPQLSerializer(templates);
+        serializer.serialize(metadata, false, null);
+
+        Expression<?> projection = metadata.getProjection();
+        return new SerializedQuery<>(
+                serializer.toString(),
+                Collections.unmodifiableList(new ArrayList<>(serializer.getConstants())),
+                metadata.getModifiers(),
+                projection instanceof FactoryExpression ? (FactoryExpression<T>) projection : null);
+    }
+
+    public String getJpql() {
+        return jpql;
+    }
+
+    // Param 으로 선언한 값만 params 로 넘긴다. 나머지 상수는 직렬화 당시 값이 그대로 사용된다.
+    public Query bind(Query query, Map<ParamExpression<?>, Object> params) {
+        JPAUtil.setConstants(query, constants, params);
+        if (modifiers.getLimitAsInteger() != null) {
+            query.setMaxResults(modifiers.getLimitAsInteger());
+        }
+        if (modifiers.getOffsetAsInteger() != null) {
+            query.setFirstResult(modifiers.getOffsetAsInteger());
+        }
+        return query;
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<T> fetch(Query query) {
+        List<?> rows = query.getResultList();
+        if (factory == null) {
+            return (List<T>) rows;
+        }
+
+        boolean singleArg = factory.getArgs().size() == 1;
+        List<T> result = new ArrayList<>(rows.size());
+        for (Object row : rows) {
+            result.add(factory.newInstance(singleArg ? new Object[]{row} : (Object[]) row));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,349 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static study.querydsl.entity.QMember.member;
+
+/*
+ * Member.username 부분 문자열 검색용 메모리 트라이그램(3-gram) 인덱스
+ * like '%x%' 는 DB 인덱스를 쓰지 못하고 전체를 스캔하므로, 검색어 -> member id 를 여기서 찾고 member.id.in(...) 으로 조회한다.
+ *
+ * - 대소문자 구분 없음 (소문자로 색인)
+ * - 검색어가 GRAM 글자보다 짧으면 사용할 수 없다. (supports)
+ * - persist/update/remove 는 MemberUsernameIndexListener 가 커밋 후에 반영한다.
+ *   커밋 전의 변경은 인덱스에 없으므로 변경이 남아 있는 트랜잭션(hasPendingChanges)에서는 like 로 검색한다.
+ * - 벌크 연산(BulkOperationEvent)은 어떤 행이 바뀌었는지 모르므로 커밋 후 다음 검색 때 DB 에서 다시 만든다.
+ *   queryFactory.update/delete(EventPublishingJPAQueryFactory, BulkOperations 포함)와 MemberSyncService 가 이벤트를 발행한다.
+ *   invalidate() 마다 세대(generation)를 올리고, 그 세대로 만든 인덱스가 자리를 잡기 전에는 검색하지 않는다.
+ *   다시 만드는 일은 백그라운드 스레드(트랜잭션 밖, primary)에서 하고, 그동안 find 는 기다리지 않고 Optional.empty() 를
+ *   반환한다. 호출하는 쪽은 like 검색으로 대신한다. (검색 트랜잭션이 커넥션을 쥔 채로 두 번째 커넥션을 기다리지 않는다.)
+ * - 그 밖의 벌크 JPQL(new JPAUpdateClause, em.createQuery), 네이티브 SQL 은 반영되지 않는다.
+ *   조회할 때 DB 값으로 다시 확인하므로(MemberRepositoryImpl.searchByUsernameContaining) 잘못 맞은 행은 걸러지지만,
+ *   인덱스 모르게 추가되거나 이름이 바뀐 행은 다음 invalidate() 전까지 찾지 못한다.
+ */
+@Slf4j
+@Component
+public class UsernameIndex implements DisposableBean {
+
+    static final int GRAM = 3;
+
+    private final JPAQueryFactory queryFactory;
+    private final TransactionTemplate primaryTx;
+    private final ExecutorService rebuildExecutor;
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object rebuildLock = new Object();
+    private Map<Long, String> usernames = new HashMap<>(); // id -> 소문자 username
+    private Map<String, Set<Long>> postings = new HashMap<>(); // 3-gram -> id
+    private List<Change> changesDuringRebuild; // 다시 만드는 동안 들어온 변경, 새 인덱스에 다시 적용한다.
+    private final AtomicLong generation = new AtomicLong(); // invalidate() 마다 증가
+    private volatile long builtGeneration = -1; // 지금 인덱스를 만든 세대. 처음 검색할 때 만든다.
+
+    public UsernameIndex(JPAQueryFactory queryFactory, PlatformTransactionManager transactionManager) {
+        this.queryFactory = queryFactory;
+        // 읽기 전용 트랜잭션은 replica 로 갈 수 있다. 지연된 replica 로 만들면 invalidate() 전의 값이 남으므로 primary 에서 읽는다.
+        this.primaryTx = new TransactionTemplate(transactionManager);
+        this.rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "username-index-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public boolean supports(String term) {
+        return term != null && term.length() >= GRAM;
+    }
+
+    /**
+     * username 에 term 이 포함된 member id (오름차순)
+     * 인덱스가 최신이 아니면 백그라운드에서 다시 만들기 시작하고 Optional.empty()
+     */
+    public Optional<List<Long>> find(String term) {
+        if (!supports(term)) {
+            throw new IllegalArgumentException("search term must have at least " + GRAM + " characters: " + term);
+        }
+        if (!isCurrent()) {
+            rebuildInBackground();
+            return Optional.empty();
+        }
+
+        String normalized = normalize(term);
+        lock.readLock().lock();
+        try {
+            List<Set<Long>> sets = new ArrayList<>();
+            for (String gram : grams(normalized)) {
+                Set<Long> ids = postings.get(gram);
+                if (ids == null) {
+                    return Optional.of(List.of());
+                }
+                sets.add(ids);
+            }
+            sets.sort(Comparator.comparingInt(Set::size));
+
+            // 가장 작은 집합에서 시작해서 나머지 집합에 모두 있고, 실제로 term 을 포함하는 id 만 남긴다.
+            List<Long> result = new ArrayList<>();
+            for (Long id : sets.get(0)) {
+                if (containsAll(sets, id) && usernames.get(id).contains(normalized)) {
+                    result.add(id);
+                }
+            }
+            result.sort(null);
+            return Optional.of(result);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return usernames.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void put(Long id, String username) {
+        apply(new Change(id, username == null ? null : normalize(username)));
+    }
+
+    void remove(Long id) {
+        apply(new Change(id, null));
+    }
+
+    // 다음 검색 때 DB 에서 다시 만든다. 지금 만들고 있는 인덱스도 최신이 아닌 것으로 본다.
+    public void invalidate() {
+        generation.incrementAndGet();
+    }
+
+    private boolean isCurrent() {
+        return builtGeneration == generation.get();
+    }
+
+    @EventListener(condition = "#event.affects(T(study.querydsl.entity.Member))")
+    public void onBulkOperation(BulkOperationEvent event) {
+        onCommit(UsernameIndex::invalidate);
+    }
+
+    /**
+     * 트랜잭션이 있으면 커밋 후에 반영하고(롤백되면 버린다), 없으면 바로 반영한다.
+     */
+    void onCommit(Consumer<UsernameIndex> change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.accept(this);
+            return;
+        }
+        PendingChanges pending = pendingChanges();
+        if (pending == null) {
+            pending = new PendingChanges(this);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.changes.add(change);
+    }
+
+    /**
+     * 현재 트랜잭션에 아직 인덱스에 반영되지 않은 Member 변경(flush 된 persist/update/remove, 벌크 연산)이 있는지
+     */
+    public boolean hasPendingChanges() {
+        return TransactionSynchronizationManager.isSynchronizationActive() && pendingChanges() != null;
+    }
+
+    // 트랜잭션마다 하나 (대량 persist 에도 동기화 객체는 하나만 등록, REQUIRES_NEW 로 중단된 트랜잭션의 것은 보이지 않는다.)
+    private PendingChanges pendingChanges() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingChanges changes && changes.index == this) {
+                return changes;
+            }
+        }
+        return null;
+    }
+
+    // 이미 예약되어 있으면 아무것도 하지 않는다. 실패하면 다음 검색 때 다시 시도한다.
+    public void rebuildInBackground() {
+        if (!rebuildScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            rebuildExecutor.execute(() -> {
+                try {
+                    rebuild();
+                } catch (RuntimeException e) {
+                    log.warn("failed to rebuild username index", e);
+                } finally {
+                    rebuildScheduled.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rebuildScheduled.set(false); // 종료 중
+        }
+    }
+
+    // 호출한 스레드에서 바로 만든다. (테스트, 벤치마크) 트랜잭션 안에서 호출하지 않는다.
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            long target = generation.get();
+            if (builtGeneration == target) {
+                return; // 다른 스레드가 먼저 만들었다.
+            }
+            long start = System.nanoTime();
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            Map<Long, String> newUsernames = new HashMap<>();
+            Map<String, Set<Long>> newPostings = new HashMap<>();
+            boolean loaded = false;
+            try {
+                primaryTx.executeWithoutResult(status -> {
+                    try (Stream<Tuple> rows = queryFactory
+                            .select(member.id, member.username)
+                            .from(member)
+                            .stream()) {
+                        rows.forEach(row -> {
+                            String username = row.get(member.username);
+                            if (username != null) {
+                                add(newUsernames, newPostings, row.get(member.id), normalize(username));
+                            }
+                        });
+                    }
+                });
+                loaded = true;
+            } finally {
+                lock.writeLock().lock();
+                try {
+                    List<Change> changes = changesDuringRebuild;
+                    changesDuringRebuild = null;
+                    if (loaded) {
+                        usernames = newUsernames;
+                        postings = newPostings;
+                        changes.forEach(change -> change.applyTo(usernames, postings));
+                        // 읽는 동안 invalidate() 되었으면 target 이 현재 세대보다 작아 다음 검색 때 다시 만든다.
+                        builtGeneration = target;
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+            log.info("username index rebuilt: {} members, {} grams in {} ms",
+                    newUsernames.size(), newPostings.size(), (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    private void apply(Change change) {
+        lock.writeLock().lock();
+        try {
+            change.applyTo(usernames, postings);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static boolean containsAll(List<Set<Long>> sets, Long id) {
+        for (int i = 1; i < sets.size(); i++) {
+            if (!sets.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void add(Map<Long, String> usernames, Map<String, Set<Long>> postings, Long id, String username) {
+        usernames.put(id, username);
+        for (String gram : grams(username)) {
+            postings.computeIfAbsent(gram, key -> new HashSet<>()).add(id);
+        }
+    }
+
+    private static void removeId(Map<Long, String> usernames, Map<String, Set<Long>> postings, Long id) {
+        String old = usernames.remove(id);
+        if (old == null) {
+            return;
+        }
+        for (String gram : grams(old)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    static Set<String> grams(String value) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    private static class PendingChanges implements TransactionSynchronization {
+
+        private final UsernameIndex index;
+        private final List<Consumer<UsernameIndex>> changes = new ArrayList<>();
+
+        PendingChanges(UsernameIndex index) {
+            this.index = index;
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            if (status == STATUS_COMMITTED) {
+                changes.forEach(change -> change.accept(index));
+            }
+        }
+    }
+
+    // username == null 이면 삭제
+    private record Change(Long id, String username) {
+
+        void applyTo(Map<Long, String> usernames, Map<String, Set<Long>> postings) {
+            removeId(usernames, postings, id);
+            if (username != null) {
+                add(usernames, postings, id, username);
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package study.querydsl.service;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberIngestRow;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static study.querydsl.entity.QTeam.team;
+
+@Service
+@RequiredArgsConstructor
+public class MemberBulkIngestService {
+
+    // flush/clear 사이에 영속성 컨텍스트에 쌓이는 엔티티 수의 상한 (메모리, dirty checking 비용)
+    // 덜 찬 batch 는 flush() 때 그대로 나가므로 batch_size 의 배수일 필요는 없다.
+    static final int CHUNK_SIZE = 1_000;
+
+    private final EntityManager em;
+    private final JPAQueryFactory queryFactory;
+
+    /*
+     * 대량 회원 등록
+     * - 시퀀스는 allocationSize(100) 만큼 한 번에 할당받으므로 100건당 한 번만 호출된다.
+     * - insert는 jdbc batch로 묶여서 나간다.
+     * - CHUNK_SIZE 마다 flush/clear 해서 영속성 컨텍스트가 커지지 않게 한다.
+     */
+    @Transactional
+    public long ingest(Stream<MemberIngestRow> rows) {
+        Map<String, Long> teamIds = findTeamIds();
+        long count = 0;
+
+        Iterator<MemberIngestRow> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            MemberIngestRow row = iterator.next();
+
+            Member member = new Member(row.getUsername(), row.getAge());
+            if (row.getTeamName() != null) {
+                // changeTeam()은 team.members 컬렉션을 초기화하므로 연관관계만 설정한다.
+                member.setTeam(teamReference(teamIds, row.getTeamName()));
+            }
+            em.persist(member);
+
+            if (++count % CHUNK_SIZE == 0) {
+                em.flush();
+                em.clear();
+            }
+        }
+        em.flush();
+        em.clear();
+        return count;
+    }
+
+    private Map<String, Long> findTeamIds() {
+        Map<String, Long> teamIds = new HashMap<>();
+        for (Tuple tuple : queryFactory.select(team.name, team.id).from(team).fetch()) {
+            teamIds.putIfAbsent(tuple.get(team.name), tuple.get(team.id));
+        }
+        return teamIds;
+    }
+
+    private Team teamReference(Map<String, Long> teamIds, String teamName) {
+        Long teamId = teamIds.computeIfAbsent(teamName, name -> {
+            Team newTeam = new Team(name);
+            em.persist(newTeam);
+            return newTeam.getId();
+        });
+        // clear() 이후에도 쓸 수 있도록 id로 프록시를 얻는다. (select 없음)
+        return em.getReference(Team.class, teamId);
+    }
+}
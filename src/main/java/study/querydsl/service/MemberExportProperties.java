@@ -0,0 +1,12 @@
+package study.querydsl.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter @Setter
+@ConfigurationProperties("querydsl.export")
+public class MemberExportProperties {
+
+    private int maxWorkers = 8; // 병렬 export 가 동시에 쥐는 커넥션 수 상한 (모든 호출 합계), 커넥션 풀 크기보다 작게
+}
@@ -0,0 +1,51 @@
+package study.querydsl.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberDto;
+import study.querydsl.repository.MemberRepository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class MemberExportService {
+
+    static final int FETCH_SIZE = 500;
+
+    private final MemberRepository memberRepository;
+    private final EntityManager em;
+    private final ObjectMapper objectMapper;
+
+    /*
+     * 회원 전체를 NDJSON(한 줄에 JSON 하나)으로 스트리밍한다.
+     * 한 번에 FETCH_SIZE 건만 메모리에 올라가므로 회원 수와 관계없이 힙 사용량이 일정하다.
+     */
+    @Transactional(readOnly = true)
+    public long exportNdjson(OutputStream out) {
+        long count = 0;
+        try (Stream<MemberDto> rows = memberRepository.streamMembers(FETCH_SIZE)) {
+            Iterator<MemberDto> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                out.write(objectMapper.writeValueAsBytes(iterator.next()));
+                out.write('\n');
+
+                if (++count % FETCH_SIZE == 0) {
+                    out.flush();
+                    em.clear(); // 혹시 로딩된 엔티티가 있다면 함께 정리
+                }
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return count;
+    }
+}
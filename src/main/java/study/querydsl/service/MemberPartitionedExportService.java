@@ -0,0 +1,333 @@
+package study.querydsl.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.dsl.NumberExpression;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.MemberExportResult;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.QMemberTeamDto;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+/*
+ * 회원 + 팀 전체 export (member left join team)
+ *
+ * member_id 의 [min, max] 를 partitions 개 범위로 나누고, 범위마다 Querydsl stream 하나를 workers 개 스레드에서 실행한다.
+ * 작업마다 읽기 전용 트랜잭션을 따로 열기 때문에 EntityManager/커넥션도 워커마다 따로 사용한다.
+ * 범위 하나가 스트림이 끝날 때까지 커넥션을 쥐므로 스레드 풀은 모든 호출이 같이 쓰고 크기는 querydsl.export.max-workers 로 제한한다.
+ * (hikari 풀 크기 이상이면 기동할 때 실패, workers 가 max-workers 보다 크면 IllegalArgumentException)
+ *
+ * - exportShards: 범위마다 파일 하나 (members-00000.csv ...), member_id 순
+ * - exportMerged: 샤드를 만든 뒤 FileChannel.transferTo 로 하나로 이어 붙인다. (CSV 헤더는 한 번만)
+ *
+ * 범위는 id 기준으로 자르므로 id 가 몰려 있으면 범위별 행 수가 고르지 않다.
+ * 워커보다 범위를 많이(PARTITIONS_PER_WORKER 배) 만들어서 먼저 끝난 워커가 다음 범위를 가져가게 한다.
+ */
+@Slf4j
+@Service
+@EnableConfigurationProperties(MemberExportProperties.class)
+public class MemberPartitionedExportService implements DisposableBean {
+
+    static final int FETCH_SIZE = 500;
+    static final int PARTITIONS_PER_WORKER = 4;
+
+    public enum Format {
+        CSV("csv", "memberId,username,age,teamId,teamName\n"),
+        NDJSON("ndjson", "");
+
+        private final String extension;
+        private final String header;
+
+        Format(String extension, String header) {
+            this.extension = extension;
+            this.header = header;
+        }
+    }
+
+    private final JPAQueryFactory queryFactory;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTx;
+    private final int maxWorkers;
+    private final ExecutorService executor;
+
+    public MemberPartitionedExportService(JPAQueryFactory queryFactory, ObjectMapper objectMapper,
+                                          PlatformTransactionManager transactionManager, DataSource dataSource,
+                                          MemberExportProperties properties) {
+        this.queryFactory = queryFactory;
+        this.objectMapper = objectMapper;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.maxWorkers = properties.getMaxWorkers();
+        checkPoolSize(dataSource, maxWorkers);
+
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(maxWorkers, runnable -> {
+            Thread thread = new Thread(runnable, "member-export-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // 풀 크기를 알 수 있으면(hikari, 라우팅이면 트랜잭션 밖에서 보이는 primary 풀) export 가 풀을 다 쓰지 못하게 한다.
+    private static void checkPoolSize(DataSource dataSource, int maxWorkers) {
+        if (maxWorkers < 1) {
+            throw new IllegalStateException("querydsl.export.max-workers must be positive: " + maxWorkers);
+        }
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                int poolSize = dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+                if (maxWorkers >= poolSize) {
+                    throw new IllegalStateException("querydsl.export.max-workers (" + maxWorkers
+                            + ") must be smaller than the connection pool size (" + poolSize + ")");
+                }
+            }
+        } catch (SQLException e) {
+            log.debug("could not determine the connection pool size", e);
+        }
+    }
+
+    public MemberExportResult exportShards(Path dir, Format format, int workers) {
+        long start = System.nanoTime();
+        createDirectories(dir);
+        List<Shard> shards = exportPartitions(dir, format, workers);
+
+        long rows = shards.stream().mapToLong(Shard::rows).sum();
+        List<Path> files = shards.stream().map(Shard::file).toList();
+        return report(new MemberExportResult(rows, files, workers, shards.size(), System.nanoTime() - start));
+    }
+
+    public MemberExportResult exportMerged(Path file, Format format, int workers) {
+        long start = System.nanoTime();
+        Path parent = file.toAbsolutePath().getParent();
+        createDirectories(parent);
+
+        Path shardDir = null;
+        try {
+            shardDir = Files.createTempDirectory(parent, ".member-export-");
+            List<Shard> shards = exportPartitions(shardDir, format, workers);
+            merge(shards, file, format);
+
+            long rows = shards.stream().mapToLong(Shard::rows).sum();
+            return report(new MemberExportResult(rows, List.of(file), workers, shards.size(), System.nanoTime() - start));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            deleteRecursively(shardDir);
+        }
+    }
+
+    private List<Shard> exportPartitions(Path dir, Format format, int workers) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("workers must be positive: " + workers);
+        }
+        if (workers > maxWorkers) {
+            throw new IllegalArgumentException("workers must not exceed querydsl.export.max-workers (" + maxWorkers + "): " + workers);
+        }
+
+        NumberExpression<Long> minId = member.id.min();
+        NumberExpression<Long> maxId = member.id.max();
+        Tuple bounds = readOnlyTx.execute(status -> queryFactory
+                .select(minId, maxId)
+                .from(member)
+                .fetchOne());
+        Long min = bounds.get(minId);
+        Long max = bounds.get(maxId);
+        if (min == null) {
+            return List.of();
+        }
+        List<IdRange> ranges = split(min, max, workers * PARTITIONS_PER_WORKER);
+
+        // 워커 workers 개가 남은 범위를 차례로 가져간다. (이 호출이 동시에 쓰는 커넥션은 workers 개 이하)
+        Shard[] shards = new Shard[ranges.size()];
+        AtomicInteger next = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>(workers);
+        try {
+            for (int w = 0; w < Math.min(workers, ranges.size()); w++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = next.getAndIncrement(); i < ranges.size(); i = next.getAndIncrement()) {
+                        Path shardFile = dir.resolve("members-%05d.%s".formatted(i, format.extension));
+                        shards[i] = exportRange(ranges.get(i), shardFile, format);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                get(future);
+            }
+            return List.of(shards);
+        } finally {
+            next.set(ranges.size()); // 실패하면 남은 범위는 시작하지 않는다.
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    // [fromId, toId)
+    static List<IdRange> split(long min, long max, int partitions) {
+        long span = max - min + 1;
+        int count = (int) Math.min(partitions, span);
+        long size = (span + count - 1) / count;
+
+        List<IdRange> ranges = new ArrayList<>(count);
+        for (long from = min; from <= max; from += size) {
+            ranges.add(new IdRange(from, Math.min(from + size, max + 1)));
+        }
+        return ranges;
+    }
+
+    private Shard exportRange(IdRange range, Path file, Format format) {
+        return readOnlyTx.execute(status -> {
+            long rows = 0;
+            try (Stream<MemberTeamDto> stream = queryFactory
+                    .select(new QMemberTeamDto(member.id, member.username, member.age, team.id, team.name))
+                    .from(member)
+                    .leftJoin(member.team, team)
+                    .where(member.id.goe(range.fromId()), member.id.lt(range.toId()))
+                    .orderBy(member.id.asc())
+                    .setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE)
+                    .stream();
+                 Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                writer.write(format.header);
+                Iterator<MemberTeamDto> iterator = stream.iterator();
+                while (iterator.hasNext()) {
+                    write(writer, format, iterator.next());
+                    rows++;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return new Shard(file, rows);
+        });
+    }
+
+    private void write(Writer writer, Format format, MemberTeamDto row) throws IOException {
+        if (format == Format.NDJSON) {
+            writer.write(objectMapper.writeValueAsString(row));
+        } else {
+            writer.write(String.valueOf(row.getMemberId()));
+            writer.write(',');
+            writer.write(csv(row.getUsername()));
+            writer.write(',');
+            writer.write(String.valueOf(row.getAge()));
+            writer.write(',');
+            writer.write(row.getTeamId() == null ? "" : String.valueOf(row.getTeamId()));
+            writer.write(',');
+            writer.write(csv(row.getTeamName()));
+        }
+        writer.write('\n');
+    }
+
+    static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    // 샤드 내용을 커널에서 바로 복사한다. (transferTo, 사용자 영역 버퍼를 거치지 않음)
+    private void merge(List<Shard> shards, Path file, Format format) throws IOException {
+        byte[] header = format.header.getBytes(StandardCharsets.UTF_8);
+        try (FileChannel out = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer headerBuffer = ByteBuffer.wrap(header);
+            while (headerBuffer.hasRemaining()) {
+                out.write(headerBuffer);
+            }
+            for (Shard shard : shards) {
+                try (FileChannel in = FileChannel.open(shard.file(), StandardOpenOption.READ)) {
+                    long position = header.length; // 샤드마다 붙은 헤더는 건너뛴다.
+                    long size = in.size();
+                    while (position < size) {
+                        position += in.transferTo(position, size - position, out);
+                    }
+                }
+            }
+        }
+    }
+
+    private static <T> T get(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while exporting members", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("member export failed", e.getCause());
+        }
+    }
+
+    private static MemberExportResult report(MemberExportResult result) {
+        log.info("member export: {} rows, {} partitions, {} workers in {} ms, {} rows/s",
+                result.getRows(), result.getPartitions(), result.getWorkers(),
+                result.getElapsedNanos() / 1_000_000, Math.round(result.getRowsPerSecond()));
+        return result;
+    }
+
+    private static void createDirectories(Path dir) {
+        try {
+            Files.createDirectories(dir);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void deleteRecursively(Path dir) {
+        if (dir == null) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException e) {
+            log.warn("failed to delete shard directory {}", dir, e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    record IdRange(long fromId, long toId) {
+    }
+
+    private record Shard(Path file, long rows) {
+    }
+}
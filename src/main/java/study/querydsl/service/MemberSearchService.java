@@ -0,0 +1,48 @@
+package study.querydsl.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberSearchResult;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.TeamAgeDto;
+import study.querydsl.repository.MemberRepository;
+import study.querydsl.repository.MemberStatsRepository;
+import study.querydsl.repository.support.ConcurrentQueryExecutor;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static study.querydsl.repository.support.ConcurrentQueryExecutor.join;
+
+// 트랜잭션 없이 호출해야 쿼리들이 동시에 실행된다. (ConcurrentQueryExecutor 참고)
+@Service
+@RequiredArgsConstructor
+public class MemberSearchService {
+
+    private final MemberRepository memberRepository;
+    private final MemberStatsRepository memberStatsRepository;
+    private final ConcurrentQueryExecutor concurrentQueryExecutor;
+
+    public MemberSearchResult search(MemberSearchCondition condition, Pageable pageable) {
+        if (!concurrentQueryExecutor.isConcurrent()) {
+            return new MemberSearchResult(
+                    memberRepository.searchPage(condition, pageable),
+                    memberStatsRepository.findTeamAgeAverages());
+        }
+
+        // 동시 실행 시에는 content 결과를 보기 전에 count 를 시작하므로 count 생략 최적화는 적용되지 않는다.
+        CompletableFuture<List<MemberTeamDto>> content =
+                concurrentQueryExecutor.submit(() -> memberRepository.searchContent(condition, pageable));
+        CompletableFuture<Long> count =
+                concurrentQueryExecutor.submit(() -> memberRepository.searchCount(condition));
+        CompletableFuture<List<TeamAgeDto>> teamAgeAverages =
+                concurrentQueryExecutor.submit(memberStatsRepository::findTeamAgeAverages);
+
+        Page<MemberTeamDto> page = new PageImpl<>(join(content), pageable, join(count));
+        return new MemberSearchResult(page, join(teamAgeAverages));
+    }
+}
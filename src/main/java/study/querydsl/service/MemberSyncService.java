@@ -0,0 +1,232 @@
+package study.querydsl.service;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.sql.SQLQueryFactory;
+import com.querydsl.sql.dml.SQLInsertClause;
+import com.querydsl.sql.dml.SQLMergeClause;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberIngestRow;
+import study.querydsl.dto.MemberSyncResult;
+import study.querydsl.entity.Member;
+import study.querydsl.repository.support.BulkOperationEvent;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static study.querydsl.sql.SMember.member;
+import static study.querydsl.sql.STeam.team;
+
+/*
+ * 외부 피드 -> member 동기화 (username 기준 upsert)
+ * 엔티티를 거치지 않고 querydsl-sql 로 배치 merge 한다.
+ *
+ * 배치(BATCH_SIZE)마다
+ * 1. 배치 안의 username 이 이미 있는지 한 번에 조회 -> 있으면 기존 member_id, 없으면 시퀀스에서 미리 받은 id
+ * 2. 처음 보는 팀은 insert 배치로 먼저 넣는다. (팀 이름 -> id 는 동기화 동안 캐시)
+ * 3. merge into member key(member_id) ... 를 JDBC batch 로 실행
+ *
+ * - 같은 username 이 DB 에 여러 건이면 id 가 가장 작은 회원을 갱신한다.
+ * - 영속성 컨텍스트/2차 캐시를 거치지 않으므로 끝나면 BulkOperationEvent 를 발행하고 쿼리 캐시를 비운다.
+ * - 시작 전에 flush 해서 아직 insert 되지 않은 persist 가 username 조회에 보이게 하고(중복 행 방지),
+ *   끝나면 clear 해서 호출한 트랜잭션에 남은 회원이 merge 전의 age/team 을 들고 있지 않게 한다.
+ *   (BulkOperations 와 달리 어떤 회원이 바뀌었는지 미리 고르지 않으므로 영속성 컨텍스트 전체를 비운다.)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MemberSyncService {
+
+    static final int BATCH_SIZE = 1_000;
+    static final int SEQUENCE_ALLOCATION = 100; // member_seq, team_seq 의 allocationSize (increment by 100, pooled-lo)
+
+    private final SQLQueryFactory sqlQueryFactory;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManagerFactory emf;
+    private final EntityManager em;
+
+    // username,age,teamName (UTF-8, 헤더 없음, teamName 은 비어 있을 수 있음)
+    @Transactional
+    public MemberSyncResult sync(Path csv) {
+        try (Stream<String> lines = Files.lines(csv, StandardCharsets.UTF_8)) {
+            return sync(lines.filter(line -> !line.isBlank()).map(MemberSyncService::parse));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Transactional
+    public MemberSyncResult sync(Stream<MemberIngestRow> rows) {
+        long start = System.nanoTime();
+        em.flush();
+        Map<String, Long> teamIds = findTeamIds();
+        IdAllocator memberIds = new IdAllocator("member_seq", BATCH_SIZE / SEQUENCE_ALLOCATION);
+        IdAllocator teamIdAllocator = new IdAllocator("team_seq", 1);
+
+        long total = 0;
+        long merged = 0; // 배치 안의 중복 username 을 합친 뒤 실제로 merge 한 행 수
+        long inserted = 0;
+        long teamsInserted = 0;
+        Map<String, MemberIngestRow> batch = new LinkedHashMap<>();
+        Iterator<MemberIngestRow> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            MemberIngestRow row = iterator.next();
+            batch.put(row.getUsername(), row); // 같은 배치 안에서는 마지막 행이 이긴다.
+            total++;
+
+            if (batch.size() == BATCH_SIZE || !iterator.hasNext()) {
+                teamsInserted += insertMissingTeams(batch.values(), teamIds, teamIdAllocator);
+                inserted += merge(batch, teamIds, memberIds);
+                merged += batch.size();
+                batch.clear();
+            }
+        }
+
+        long elapsed = System.nanoTime() - start;
+        MemberSyncResult result = new MemberSyncResult(total, inserted, merged - inserted, teamsInserted, elapsed);
+        log.info("member sync: {} rows ({} inserted, {} teams) in {} ms, {} rows/s",
+                total, inserted, teamsInserted, elapsed / 1_000_000, Math.round(result.getRowsPerSecond()));
+
+        if (total > 0) {
+            em.clear();
+            // 네이티브 SQL 은 hibernate 쿼리 캐시의 갱신 시각(update timestamps)을 바꾸지 않는다.
+            emf.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+            eventPublisher.publishEvent(new BulkOperationEvent(BulkOperationEvent.Type.UPDATE, Member.class, null, merged));
+        }
+        return result;
+    }
+
+    private long merge(Map<String, MemberIngestRow> batch, Map<String, Long> teamIds, IdAllocator memberIds) {
+        Map<String, Long> existing = new HashMap<>();
+        for (Tuple tuple : sqlQueryFactory
+                .select(member.username, member.memberId)
+                .from(member)
+                .where(member.username.in(batch.keySet()))
+                .orderBy(member.memberId.asc())
+                .fetch()) {
+            existing.putIfAbsent(tuple.get(member.username), tuple.get(member.memberId));
+        }
+
+        SQLMergeClause merge = sqlQueryFactory.merge(member).keys(member.memberId);
+        long inserted = 0;
+        for (MemberIngestRow row : batch.values()) {
+            Long id = existing.get(row.getUsername());
+            if (id == null) {
+                id = memberIds.next();
+                inserted++;
+            }
+            merge.set(member.memberId, id)
+                    .set(member.username, row.getUsername())
+                    .set(member.age, row.getAge())
+                    .set(member.teamId, row.getTeamName() != null ? teamIds.get(row.getTeamName()) : null)
+                    .addBatch();
+        }
+        merge.execute();
+        return inserted;
+    }
+
+    private int insertMissingTeams(Collection<MemberIngestRow> rows, Map<String, Long> teamIds, IdAllocator teamIdAllocator) {
+        Set<String> missing = new LinkedHashSet<>();
+        for (MemberIngestRow row : rows) {
+            if (row.getTeamName() != null && !teamIds.containsKey(row.getTeamName())) {
+                missing.add(row.getTeamName());
+            }
+        }
+        if (missing.isEmpty()) {
+            return 0;
+        }
+
+        SQLInsertClause insert = sqlQueryFactory.insert(team);
+        for (String name : missing) {
+            Long id = teamIdAllocator.next();
+            insert.set(team.teamId, id).set(team.name, name).addBatch();
+            teamIds.put(name, id);
+        }
+        insert.execute();
+        return missing.size();
+    }
+
+    private Map<String, Long> findTeamIds() {
+        Map<String, Long> teamIds = new HashMap<>();
+        for (Tuple tuple : sqlQueryFactory.select(team.name, team.teamId).from(team).orderBy(team.teamId.asc()).fetch()) {
+            teamIds.putIfAbsent(tuple.get(team.name), tuple.get(team.teamId));
+        }
+        return teamIds;
+    }
+
+    static MemberIngestRow parse(String line) {
+        String[] columns = line.split(",", -1);
+        if (columns.length != 3) {
+            throw new IllegalArgumentException("expected username,age,teamName: " + line);
+        }
+        String teamName = columns[2].strip();
+        return new MemberIngestRow(columns[0].strip(), Integer.parseInt(columns[1].strip()), teamName.isEmpty() ? null : teamName);
+    }
+
+    /*
+     * 시퀀스 값 하나 = id 100 개 (hibernate pooled-lo 와 같은 규칙)
+     * 필요한 만큼 블록을 한 번의 쿼리로 받아 둔다. JPA 가 같은 시퀀스로 받는 id 와 겹치지 않는다.
+     */
+    private class IdAllocator {
+
+        private final String sequence;
+        private final int blocksPerFetch;
+        private final Deque<Long> blocks = new ArrayDeque<>();
+        private long next;
+        private long end;
+
+        IdAllocator(String sequence, int blocksPerFetch) {
+            this.sequence = sequence;
+            this.blocksPerFetch = blocksPerFetch;
+        }
+
+        long next() {
+            if (next == end) {
+                if (blocks.isEmpty()) {
+                    fetchBlocks();
+                }
+                next = blocks.poll();
+                end = next + SEQUENCE_ALLOCATION;
+            }
+            return next++;
+        }
+
+        private void fetchBlocks() {
+            Connection connection = sqlQueryFactory.getConnection(); // 트랜잭션 커넥션이라 닫지 않는다.
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "select next value for " + sequence + " from system_range(1, ?)")) {
+                statement.setInt(1, blocksPerFetch);
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        blocks.add(rs.getLong(1));
+                    }
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException("failed to allocate ids from " + sequence, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package study.querydsl.sql;
+
+import org.springframework.jdbc.datasource.DataSourceUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.function.Supplier;
+
+/*
+ * SQLQueryFactory 용 커넥션 공급자
+ * JpaTransactionManager 가 트랜잭션에 묶어 둔 커넥션을 그대로 사용하므로 JPA 와 같은 트랜잭션에서 실행된다.
+ * (SQLQuery 는 커넥션을 닫지 않으므로 트랜잭션 밖에서는 사용할 수 없다.)
+ * JPA 로 변경한 내용은 flush 해야 SQLQuery 에서 보인다.
+ */
+public class TransactionalConnectionSupplier implements Supplier<Connection> {
+
+    private final DataSource dataSource;
+
+    public TransactionalConnectionSupplier(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public Connection get() {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        if (!DataSourceUtils.isConnectionTransactional(connection, dataSource)) {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+            throw new IllegalStateException("SQLQueryFactory must be used inside a transaction");
+        }
+        return connection;
+    }
+}
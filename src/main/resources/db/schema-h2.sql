@@ -0,0 +1,37 @@
+-- fast-startup 프로필용 스키마 (hibernate ddl-auto 대신)
+-- 엔티티 매핑(Member, Team, Hello)과 같아야 한다. 기동할 때마다 실행되므로 if not exists 로 작성한다.
+create sequence if not exists hello_seq start with 1 increment by 100;
+create sequence if not exists member_seq start with 1 increment by 100;
+create sequence if not exists team_seq start with 1 increment by 100;
+
+create table if not exists hello (
+    id bigint not null,
+    primary key (id)
+);
+
+create table if not exists team (
+    team_id bigint not null,
+    name varchar(255),
+    primary key (team_id)
+);
+
+create table if not exists member (
+    age integer not null,
+    member_id bigint not null,
+    team_id bigint,
+    username varchar(255),
+    primary key (member_id)
+);
+
+create index if not exists idx_team_name on team (name);
+create index if not exists idx_member_username_age on member (username, age);
+create index if not exists idx_member_team_age on member (team_id, age);
+
+alter table member add constraint if not exists fk_member_team foreign key (team_id) references team;
+
+-- 복제 지연 확인용 (querydsl.routing, ReplicaLagMonitor 가 primary 에 기록)
+create table if not exists replica_heartbeat (
+    id int not null,
+    beat_at bigint not null,
+    primary key (id)
+);
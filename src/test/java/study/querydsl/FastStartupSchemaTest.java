@@ -0,0 +1,63 @@
+package study.querydsl;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.metamodel.EntityType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.lang.reflect.Field;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * fast-startup 프로필은 ddl-auto 대신 db/schema-h2.sql 을 사용한다.
+ * ddl-auto=validate 로 기동해서 테이블/컬럼/시퀀스가 엔티티 매핑과 맞는지 확인하고 (맞지 않으면 컨텍스트가 뜨지 않음)
+ * validate 가 보지 않는 시퀀스 증가값(allocationSize), @Table 인덱스는 직접 확인한다.
+ */
+@ActiveProfiles("fast-startup")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:fast-startup;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+class FastStartupSchemaTest {
+
+    @Autowired
+    EntityManagerFactory emf;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void schemaMatchesEntityMappings() {
+        for (EntityType<?> entity : emf.getMetamodel().getEntities()) {
+            Class<?> type = entity.getJavaType();
+
+            Table table = type.getAnnotation(Table.class);
+            if (table != null) {
+                for (jakarta.persistence.Index index : table.indexes()) {
+                    assertThat(jdbcTemplate.queryForObject(
+                            "select count(*) from information_schema.indexes where index_name = ?",
+                            Integer.class, index.name().toUpperCase(Locale.ROOT)))
+                            .as("index %s", index.name())
+                            .isEqualTo(1);
+                }
+            }
+
+            for (Field field : type.getDeclaredFields()) {
+                SequenceGenerator sequence = field.getAnnotation(SequenceGenerator.class);
+                if (sequence != null) {
+                    assertThat(jdbcTemplate.queryForObject(
+                            "select increment from information_schema.sequences where sequence_name = ?",
+                            Long.class, sequence.sequenceName().toUpperCase(Locale.ROOT)))
+                            .as("sequence %s", sequence.sequenceName())
+                            .isEqualTo((long) sequence.allocationSize());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package study.querydsl.datasource;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Member;
+import study.querydsl.repository.MemberRepository;
+import study.querydsl.repository.MemberStatsRepository;
+import study.querydsl.repository.support.UsernameIndex;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QMember.member;
+
+// primary, replica 를 각각 다른 스레드/트랜잭션에서 확인하므로 데이터를 커밋해 둔다.
+@ActiveProfiles("routing")
+@SpringBootTest
+class RoutingDataSourceTest {
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    JPAQueryFactory queryFactory;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    DataSource dataSource;
+    @Autowired
+    RoutingDataSourceConfig routingConfig;
+    @Autowired
+    MemberStatsRepository memberStatsRepository;
+    @Autowired
+    UsernameIndex usernameIndex;
+    @Autowired
+    CacheManager cacheManager;
+
+    TransactionTemplate tx;
+    TransactionTemplate readOnlyTx;
+    JdbcTemplate primaryJdbc;
+    JdbcTemplate replicaJdbc;
+
+    @BeforeEach
+    void before() {
+        tx = new TransactionTemplate(transactionManager);
+        readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+        primaryJdbc = new JdbcTemplate(dataSource); // 트랜잭션 밖 -> primary
+        replicaJdbc = new JdbcTemplate(routingConfig.getReplica());
+        new ResourceDatabasePopulator(new ClassPathResource("db/schema-h2.sql")).execute(routingConfig.getReplica());
+
+        tx.executeWithoutResult(status -> em.persist(new Member("primaryOnly", 10)));
+        replicaJdbc.update("insert into member (member_id, username, age) values (?, ?, ?)", -1L, "replicaOnly", 20);
+        replicate();
+    }
+
+    @AfterEach
+    void after() {
+        tx.executeWithoutResult(status -> em.createQuery("delete from Member").executeUpdate());
+        replicaJdbc.update("delete from member");
+    }
+
+    @Test
+    void readOnlyTransactionsReadFromReplica() {
+        assertThat(readOnlyTx.execute(status -> usernames())).containsExactly("replicaOnly");
+        assertThat(memberRepository.searchMembers(null, null)) // MemberRepositoryImpl 은 @Transactional(readOnly = true)
+                .extracting(Member::getUsername).containsExactly("replicaOnly");
+
+        assertThat(tx.execute(status -> usernames())).containsExactly("primaryOnly");
+    }
+
+    @Test
+    void bulkClausesGoToPrimary() {
+        long affected = tx.execute(status -> queryFactory
+                .update(member)
+                .set(member.age, 99)
+                .execute());
+
+        assertThat(affected).isEqualTo(1);
+        assertThat(primaryJdbc.queryForObject("select age from member where username = 'primaryOnly'", Integer.class)).isEqualTo(99);
+        assertThat(replicaJdbc.queryForObject("select age from member where username = 'replicaOnly'", Integer.class)).isEqualTo(20);
+    }
+
+    // 캐시/인덱스를 다시 채우는 조회는 지연될 수 있는 replica 대신 primary 에서 읽는다.
+    @Test
+    void cacheAndIndexRefillsReadFromPrimary() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        assertThat(memberStatsRepository.findAgeSummary().getMax()).isEqualTo(10); // primaryOnly
+
+        usernameIndex.invalidate();
+        usernameIndex.rebuild();
+        assertThat(usernameIndex.find("primary")).hasValueSatisfying(ids -> assertThat(ids).hasSize(1));
+        assertThat(usernameIndex.find("replica")).hasValue(List.of());
+        usernameIndex.invalidate();
+    }
+
+    // 벌크 연산으로 비운 캐시를 읽기 전용 트랜잭션(replica)이 옛 값으로 다시 채우지 않는다.
+    @Test
+    void statsAfterBulkUpdateAreNotRefilledFromReplica() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        tx.executeWithoutResult(status -> queryFactory.update(member).set(member.age, 50).execute()); // replica 에는 아직 20
+
+        assertThat(readOnlyTx.execute(status -> memberStatsRepository.findAgeSummary().getMax())).isEqualTo(50);
+        assertThat(readOnlyTx.execute(status -> memberStatsRepository.findTeamAgeAverages())).isEmpty(); // primaryOnly 는 팀 없음
+        // 캐시 밖의 읽기 전용 조회는 그대로 replica
+        assertThat(readOnlyTx.execute(status -> usernames())).containsExactly("replicaOnly");
+        assertThat(memberStatsRepository.findAgeSummary().getMax()).isEqualTo(50); // 캐시
+    }
+
+    // 라우팅 DataSource 의 풀도 spring.datasource.hikari / querydsl.routing.replica.hikari 설정을 따른다.
+    @Test
+    void poolSettingsAreBound() throws Exception {
+        assertThat(dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize()).isEqualTo(12); // 트랜잭션 밖 -> primary
+        HikariDataSource replica = (HikariDataSource) routingConfig.getReplica();
+        assertThat(replica.getMaximumPoolSize()).isEqualTo(6);
+        assertThat(replica.getConnectionTimeout()).isEqualTo(5000);
+    }
+
+    @Test
+    void laggingReplicaFallsBackToPrimary() {
+        replicaJdbc.update("update replica_heartbeat set beat_at = ?", System.currentTimeMillis() - 10_000); // max-lag 2s
+        routingConfig.getLagMonitor().check();
+
+        assertThat(routingConfig.getLagMonitor().isReplicaAvailable()).isFalse();
+        assertThat(readOnlyTx.execute(status -> usernames())).containsExactly("primaryOnly");
+
+        replicate(); // 따라잡으면 다시 replica
+        assertThat(readOnlyTx.execute(status -> usernames())).containsExactly("replicaOnly");
+    }
+
+    @Test
+    void unreachableReplicaFallsBackToPrimary() {
+        replicaJdbc.execute("drop table replica_heartbeat");
+        routingConfig.getLagMonitor().check();
+
+        assertThat(routingConfig.getLagMonitor().isReplicaAvailable()).isFalse();
+        assertThat(readOnlyTx.execute(status -> usernames())).containsExactly("primaryOnly");
+    }
+
+    private List<String> usernames() {
+        return queryFactory.select(member.username).from(member).fetch();
+    }
+
+    // 복제 흉내: primary 의 heartbeat 를 replica 로 옮기고 지연을 다시 확인한다.
+    private void replicate() {
+        routingConfig.getLagMonitor().check(); // primary 에 heartbeat 기록
+        Long beatAt = primaryJdbc.queryForObject("select beat_at from replica_heartbeat where id = 1", Long.class);
+        replicaJdbc.update("merge into replica_heartbeat key(id) values (1, ?)", beatAt);
+        routingConfig.getLagMonitor().check();
+    }
+}
@@ -0,0 +1,166 @@
+package study.querydsl.datasource;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.loadtest.LoadTestRunner;
+import study.querydsl.loadtest.SyntheticDataGenerator;
+import study.querydsl.repository.MemberRepository;
+import study.querydsl.service.MemberBulkIngestService;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QMember.member;
+
+/*
+ * 읽기 4 : 쓰기 1 부하를 replica 사용(라우팅) / replica 지연(전부 primary) 두 번 실행해서 비교한다.
+ * ./gradlew performanceTest --tests '*RoutingThroughputTest' -Dperf.members=100000 -Dperf.threads=16 -Dperf.seconds=30
+ */
+@Tag("performance")
+@ActiveProfiles({"perf", "routing"})
+@SpringBootTest
+class RoutingThroughputTest {
+
+    static final int MEMBERS = Integer.getInteger("perf.members", 50_000);
+    static final int TEAMS = Integer.getInteger("perf.teams", 100);
+    static final int THREADS = Integer.getInteger("perf.threads", 8);
+    static final int SECONDS = Integer.getInteger("perf.seconds", 20);
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    JPAQueryFactory queryFactory;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    MemberBulkIngestService memberBulkIngestService;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    DataSource dataSource;
+    @Autowired
+    RoutingDataSourceConfig routingConfig;
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    TransactionTemplate tx;
+    TransactionTemplate readOnlyTx;
+    JdbcTemplate primaryJdbc;
+    JdbcTemplate replicaJdbc;
+
+    @BeforeEach
+    void before() {
+        tx = new TransactionTemplate(transactionManager);
+        readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+        primaryJdbc = new JdbcTemplate(dataSource);
+        replicaJdbc = new JdbcTemplate(routingConfig.getReplica());
+        new ResourceDatabasePopulator(new ClassPathResource("db/schema-h2.sql")).execute(routingConfig.getReplica());
+
+        SyntheticDataGenerator.members(MEMBERS).teams(TEAMS).load(memberBulkIngestService);
+        copyToReplica("select team_id, name from team", "insert into team (team_id, name) values (?, ?)");
+        copyToReplica("select member_id, username, age, team_id from member",
+                "insert into member (member_id, username, age, team_id) values (?, ?, ?, ?)");
+    }
+
+    @AfterEach
+    void after() {
+        tx.executeWithoutResult(status -> {
+            em.createQuery("delete from Member").executeUpdate();
+            em.createQuery("delete from Team").executeUpdate();
+        });
+        replicaJdbc.update("delete from member");
+        replicaJdbc.update("delete from team");
+    }
+
+    @Test
+    void readsScaleAcrossPrimaryAndReplica() throws Exception {
+        replicate();
+        assertThat(routingConfig.getLagMonitor().isReplicaAvailable()).isTrue();
+        Map<String, LoadTestRunner.Result> routed = run("replica");
+
+        replicaJdbc.update("update replica_heartbeat set beat_at = 0"); // 지연 -> 읽기도 primary
+        routingConfig.getLagMonitor().check();
+        assertThat(routingConfig.getLagMonitor().isReplicaAvailable()).isFalse();
+        Map<String, LoadTestRunner.Result> primaryOnly = run("primary only");
+
+        System.out.printf("reads/s: replica %.0f vs primary only %.0f (x%.2f)%n",
+                routed.get("read").getThroughput(), primaryOnly.get("read").getThroughput(),
+                routed.get("read").getThroughput() / primaryOnly.get("read").getThroughput());
+        assertThat(routed.values()).allSatisfy(r -> assertThat(r.getErrors()).isZero());
+        assertThat(primaryOnly.values()).allSatisfy(r -> assertThat(r.getErrors()).isZero());
+    }
+
+    private Map<String, LoadTestRunner.Result> run(String name) throws Exception {
+        double primaryBefore = connections("primary");
+        double replicaBefore = connections("replica");
+
+        Map<String, LoadTestRunner.Result> results = new LoadTestRunner()
+                .scenario("read", 4, () -> readOnlyTx.execute(status -> {
+                    MemberSearchCondition condition = new MemberSearchCondition();
+                    condition.setTeamName(SyntheticDataGenerator.teamName(random().nextInt(TEAMS)));
+                    condition.setAgeGoe(20);
+                    condition.setAgeLoe(40);
+                    return memberRepository.searchPage(condition, PageRequest.of(random().nextInt(10), 20));
+                }))
+                .scenario("write", 1, () -> tx.execute(status -> queryFactory
+                        .update(member)
+                        .set(member.age, random().nextInt(100))
+                        .where(member.username.eq(SyntheticDataGenerator.username(random().nextInt(1_000))))
+                        .execute()))
+                .threads(THREADS)
+                .warmup(Duration.ofSeconds(Math.max(1, SECONDS / 6)))
+                .duration(Duration.ofSeconds(SECONDS))
+                .run();
+
+        System.out.printf("[%s] members = %,d, threads = %d, connections: primary = %,.0f, replica = %,.0f%n",
+                name, MEMBERS, THREADS, connections("primary") - primaryBefore, connections("replica") - replicaBefore);
+        LoadTestRunner.print(results);
+        return results;
+    }
+
+    private double connections(String target) {
+        return meterRegistry.get("querydsl.routing.connections").tag("target", target).counter().count();
+    }
+
+    private void copyToReplica(String select, String insert) {
+        List<Object[]> rows = primaryJdbc.query(select, (rs, rowNum) -> {
+            Object[] row = new Object[rs.getMetaData().getColumnCount()];
+            for (int i = 0; i < row.length; i++) {
+                row[i] = rs.getObject(i + 1);
+            }
+            return row;
+        });
+        replicaJdbc.batchUpdate(insert, rows);
+    }
+
+    private void replicate() {
+        routingConfig.getLagMonitor().check();
+        Long beatAt = primaryJdbc.queryForObject("select beat_at from replica_heartbeat where id = 1", Long.class);
+        replicaJdbc.update("merge into replica_heartbeat key(id) values (1, ?)", beatAt);
+        routingConfig.getLagMonitor().check();
+    }
+
+    private static ThreadLocalRandom random() {
+        return ThreadLocalRandom.current();
+    }
+}
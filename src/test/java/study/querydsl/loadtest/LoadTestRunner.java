@@ -0,0 +1,211 @@
+package study.querydsl.loadtest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * 시나리오(쿼리 모양)들을 여러 스레드에서 동시에 반복 실행하고 처리량과 지연 시간 분포를 보고한다.
+ * 스레드마다 매 반복에서 시나리오를 하나 무작위로 고른다. (가중치 = 선택 비율)
+ * 시나리오가 던진 예외는 시나리오별 오류 수로 세고 계속 실행한다. (첫 예외는 Result.getFirstError)
+ *
+ * new LoadTestRunner()
+ *         .scenario("paging", 3, () -> ...)
+ *         .scenario("grouping", 1, () -> ...)
+ *         .threads(8).warmup(Duration.ofSeconds(5)).duration(Duration.ofSeconds(30))
+ *         .run();
+ */
+public class LoadTestRunner {
+
+    private final Map<String, Scenario> scenarios = new LinkedHashMap<>();
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private Duration warmup = Duration.ofSeconds(5);
+    private Duration duration = Duration.ofSeconds(30);
+
+    public LoadTestRunner scenario(String name, int weight, Runnable action) {
+        scenarios.put(name, new Scenario(name, weight, action));
+        return this;
+    }
+
+    public LoadTestRunner threads(int threads) {
+        this.threads = threads;
+        return this;
+    }
+
+    public LoadTestRunner warmup(Duration warmup) {
+        this.warmup = warmup;
+        return this;
+    }
+
+    public LoadTestRunner duration(Duration duration) {
+        this.duration = duration;
+        return this;
+    }
+
+    public Map<String, Result> run() throws Exception {
+        if (scenarios.isEmpty()) {
+            throw new IllegalStateException("no scenario");
+        }
+        List<Scenario> weighted = new ArrayList<>();
+        scenarios.values().forEach(s -> {
+            for (int i = 0; i < s.weight; i++) {
+                weighted.add(s);
+            }
+        });
+
+        runPhase(weighted, warmup, false);
+        long elapsed = runPhase(weighted, duration, true);
+
+        Map<String, Result> results = new LinkedHashMap<>();
+        scenarios.values().forEach(s -> results.put(s.name, s.result(elapsed)));
+        return results;
+    }
+
+    private long runPhase(List<Scenario> weighted, Duration phase, boolean measure) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicLong deadline = new AtomicLong();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline.get()) {
+                        Scenario scenario = weighted.get(random.nextInt(weighted.size()));
+                        long begin = System.nanoTime();
+                        RuntimeException error = null;
+                        try {
+                            scenario.action.run();
+                        } catch (RuntimeException e) {
+                            error = e;
+                        }
+                        if (measure) {
+                            scenario.record(System.nanoTime() - begin, error);
+                        }
+                    }
+                    return null;
+                }));
+            }
+
+            long begin = System.nanoTime();
+            deadline.set(begin + phase.toNanos());
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(); // 시나리오 예외는 세고 넘어가므로 여기서는 러너 자체의 오류만 올라온다.
+            }
+            return System.nanoTime() - begin;
+        } finally {
+            executor.shutdownNow();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+
+    public static void print(Map<String, Result> results) {
+        System.out.printf("%-16s %10s %10s %10s %10s %10s %10s %8s%n",
+                "scenario", "ops", "ops/s", "p50 ms", "p90 ms", "p99 ms", "max ms", "errors");
+        results.forEach((name, r) -> System.out.printf("%-16s %,10d %,10.1f %10.3f %10.3f %10.3f %10.3f %8d%n",
+                name, r.getOperations(), r.getThroughput(),
+                r.percentileMillis(50), r.percentileMillis(90), r.percentileMillis(99), r.percentileMillis(100),
+                r.getErrors()));
+    }
+
+    private static class Scenario {
+
+        final String name;
+        final int weight;
+        final Runnable action;
+        final List<long[]> chunks = new ArrayList<>();
+        long[] current = new long[4096];
+        int size;
+        long errors;
+        RuntimeException firstError;
+
+        Scenario(String name, int weight, Runnable action) {
+            if (weight < 1) {
+                throw new IllegalArgumentException("weight must be positive: " + weight);
+            }
+            this.name = name;
+            this.weight = weight;
+            this.action = action;
+        }
+
+        synchronized void record(long nanos, RuntimeException error) {
+            if (error != null) {
+                if (errors++ == 0) {
+                    firstError = error;
+                }
+                return;
+            }
+            if (size == current.length) {
+                chunks.add(current);
+                current = new long[current.length];
+                size = 0;
+            }
+            current[size++] = nanos;
+        }
+
+        synchronized Result result(long elapsedNanos) {
+            long[] all = new long[chunks.size() * current.length + size];
+            int n = 0;
+            for (long[] chunk : chunks) {
+                System.arraycopy(chunk, 0, all, n, chunk.length);
+                n += chunk.length;
+            }
+            System.arraycopy(current, 0, all, n, size);
+            Arrays.sort(all);
+            return new Result(all, errors, firstError, elapsedNanos);
+        }
+    }
+
+    public static class Result {
+
+        private final long[] sortedNanos;
+        private final long errors;
+        private final RuntimeException firstError;
+        private final long elapsedNanos;
+
+        Result(long[] sortedNanos, long errors, RuntimeException firstError, long elapsedNanos) {
+            this.sortedNanos = sortedNanos;
+            this.errors = errors;
+            this.firstError = firstError;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public long getOperations() {
+            return sortedNanos.length;
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        // 오류가 없으면 null
+        public RuntimeException getFirstError() {
+            return firstError;
+        }
+
+        public double getThroughput() {
+            return sortedNanos.length / (elapsedNanos / 1_000_000_000.0);
+        }
+
+        // nearest-rank
+        public double percentileMillis(double percentile) {
+            if (sortedNanos.length == 0) {
+                return Double.NaN;
+            }
+            int rank = (int) Math.ceil(percentile / 100 * sortedNanos.length);
+            return sortedNanos[Math.max(0, rank - 1)] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package study.querydsl.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoadTestRunnerTest {
+
+    @Test
+    void errorsAreCountedAndRunContinues() throws Exception {
+        AtomicLong calls = new AtomicLong();
+        Map<String, LoadTestRunner.Result> results = new LoadTestRunner()
+                .scenario("ok", 1, () -> { })
+                .scenario("flaky", 1, () -> {
+                    if (calls.incrementAndGet() % 2 == 0) {
+                        throw new IllegalStateException("boom");
+                    }
+                })
+                .threads(2)
+                .warmup(Duration.ZERO)
+                .duration(Duration.ofMillis(200))
+                .run();
+
+        assertThat(results.get("ok").getErrors()).isZero();
+        assertThat(results.get("ok").getFirstError()).isNull();
+        assertThat(results.get("flaky").getErrors()).isPositive();
+        assertThat(results.get("flaky").getOperations()).isPositive();
+        assertThat(results.get("flaky").getFirstError()).hasMessage("boom");
+    }
+}
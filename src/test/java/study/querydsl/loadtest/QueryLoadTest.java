@@ -0,0 +1,130 @@
+package study.querydsl.loadtest;
+
+import com.querydsl.jpa.JPAExpressions;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.entity.QMember;
+import study.querydsl.repository.MemberRepository;
+import study.querydsl.service.MemberBulkIngestService;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+/*
+ * 기존 쿼리 모양(페이징, keyset, group by, 서브쿼리, 동적 검색)을 동시에 실행하는 부하 테스트
+ * 성능 관련 변경 전/후 비교의 기준선으로 사용한다.
+ *
+ * ./gradlew performanceTest --tests '*QueryLoadTest' \
+ *     -Dperf.members=1000000 -Dperf.teams=100 -Dperf.threads=16 -Dperf.seconds=60
+ */
+@Tag("performance")
+@ActiveProfiles("perf")
+@SpringBootTest
+class QueryLoadTest {
+
+    static final int MEMBERS = Integer.getInteger("perf.members", 100_000);
+    static final int TEAMS = Integer.getInteger("perf.teams", 100);
+    static final int THREADS = Integer.getInteger("perf.threads", 8);
+    static final int SECONDS = Integer.getInteger("perf.seconds", 30);
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    JPAQueryFactory queryFactory;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    MemberBulkIngestService memberBulkIngestService;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    TransactionTemplate tx;
+    TransactionTemplate readOnlyTx;
+
+    @BeforeEach
+    void before() {
+        tx = new TransactionTemplate(transactionManager);
+        readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+
+        long start = System.nanoTime();
+        long loaded = SyntheticDataGenerator.members(MEMBERS).teams(TEAMS).load(memberBulkIngestService);
+        System.out.printf("loaded %,d members / %d teams in %.2f s%n",
+                loaded, TEAMS, (System.nanoTime() - start) / 1_000_000_000.0);
+    }
+
+    @AfterEach
+    void after() {
+        tx.executeWithoutResult(status -> {
+            em.createQuery("delete from Member").executeUpdate();
+            em.createQuery("delete from Team").executeUpdate();
+        });
+    }
+
+    @Test
+    void mixedQueryShapes() throws Exception {
+        Map<String, LoadTestRunner.Result> results = new LoadTestRunner()
+                .scenario("paging", 3, () -> read(() -> {
+                    MemberSearchCondition condition = new MemberSearchCondition();
+                    condition.setTeamName(SyntheticDataGenerator.teamName(random().nextInt(TEAMS)));
+                    condition.setAgeGoe(20);
+                    condition.setAgeLoe(40);
+                    return memberRepository.searchPage(condition, PageRequest.of(random().nextInt(10), 20));
+                }))
+                .scenario("keyset", 2, () -> read(() -> memberRepository.searchByKeyset(null, 20)))
+                .scenario("dynamic", 3, () -> read(() -> memberRepository.searchMembers(
+                        SyntheticDataGenerator.username(random().nextInt(100)),
+                        random().nextBoolean() ? random().nextInt(20, 50) : null)))
+                .scenario("grouping", 1, () -> read(() -> queryFactory
+                        .select(team.name, member.age.avg())
+                        .from(member)
+                        .join(member.team, team)
+                        .groupBy(team.name)
+                        .fetch()))
+                .scenario("subquery", 1, () -> read(() -> {
+                    QMember memberSub = new QMember("memberSub");
+                    return queryFactory
+                            .selectFrom(member)
+                            .where(member.age.eq(
+                                    JPAExpressions.select(memberSub.age.max()).from(memberSub)))
+                            .limit(100)
+                            .fetch();
+                }))
+                .threads(THREADS)
+                .warmup(Duration.ofSeconds(Math.max(1, SECONDS / 6)))
+                .duration(Duration.ofSeconds(SECONDS))
+                .run();
+
+        System.out.printf("members = %,d, teams = %d, threads = %d%n", MEMBERS, TEAMS, THREADS);
+        LoadTestRunner.print(results);
+        assertThat(results.values()).allSatisfy(r -> {
+            assertThat(r.getOperations()).isPositive();
+            assertThat(r.getFirstError()).isNull();
+        });
+    }
+
+    private void read(Supplier<?> query) {
+        readOnlyTx.execute(status -> query.get());
+    }
+
+    private static ThreadLocalRandom random() {
+        return ThreadLocalRandom.current();
+    }
+}
@@ -0,0 +1,103 @@
+package study.querydsl.loadtest;
+
+import study.querydsl.dto.MemberIngestRow;
+import study.querydsl.service.MemberBulkIngestService;
+
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/*
+ * 운영 규모 재현용 Member/Team 데이터 생성기
+ * 같은 seed 면 항상 같은 데이터가 만들어진다.
+ *
+ * - 팀: 일부 팀에 회원이 몰린다. (teamSkew)
+ * - 나이: 20 ~ 40 대에 몰리는 분포 (정규 분포, 0 ~ 99 로 자름)
+ * - username: 자주 쓰는 이름이 반복된다. (usernameSkew, usernamePool) -> 동등 조건 검색 결과 건수가 이름마다 다름
+ *
+ * SyntheticDataGenerator.members(1_000_000).teams(100).seed(42).load(memberBulkIngestService);
+ */
+public class SyntheticDataGenerator {
+
+    private final int members;
+    private int teams = 10;
+    private long seed = 42;
+    private double teamSkew = 1.0;
+    private int usernamePool = 10_000;
+    private double usernameSkew = 1.1;
+    private double ageMean = 33;
+    private double ageStdDev = 12;
+
+    private SyntheticDataGenerator(int members) {
+        this.members = members;
+    }
+
+    public static SyntheticDataGenerator members(int members) {
+        return new SyntheticDataGenerator(members);
+    }
+
+    public SyntheticDataGenerator teams(int teams) {
+        this.teams = teams;
+        return this;
+    }
+
+    public SyntheticDataGenerator seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    public SyntheticDataGenerator teamSkew(double exponent) {
+        this.teamSkew = exponent;
+        return this;
+    }
+
+    public SyntheticDataGenerator usernames(int pool, double exponent) {
+        this.usernamePool = pool;
+        this.usernameSkew = exponent;
+        return this;
+    }
+
+    public SyntheticDataGenerator age(double mean, double stdDev) {
+        this.ageMean = mean;
+        this.ageStdDev = stdDev;
+        return this;
+    }
+
+    public Stream<MemberIngestRow> rows() {
+        SplittableRandom random = new SplittableRandom(seed);
+        ZipfSampler teamSampler = new ZipfSampler(teams, teamSkew);
+        ZipfSampler usernameSampler = new ZipfSampler(usernamePool, usernameSkew);
+
+        return IntStream.range(0, members).mapToObj(i -> new MemberIngestRow(
+                username(usernameSampler.next(random)),
+                age(random),
+                teamName(teamSampler.next(random))));
+    }
+
+    // 배치 insert (MemberBulkIngestService) 로 적재하고 적재 건수를 반환한다.
+    public long load(MemberBulkIngestService ingestService) {
+        return ingestService.ingest(rows());
+    }
+
+    public int getMembers() {
+        return members;
+    }
+
+    public int getTeams() {
+        return teams;
+    }
+
+    public static String username(int rank) {
+        return String.format("user%05d", rank);
+    }
+
+    public static String teamName(int rank) {
+        return "team" + rank;
+    }
+
+    private int age(SplittableRandom random) {
+        // Box-Muller
+        double gaussian = Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+        return (int) Math.max(0, Math.min(99, Math.round(ageMean + gaussian * ageStdDev)));
+    }
+}
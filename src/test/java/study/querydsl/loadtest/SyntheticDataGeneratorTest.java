@@ -0,0 +1,42 @@
+package study.querydsl.loadtest;
+
+import org.junit.jupiter.api.Test;
+import study.querydsl.dto.MemberIngestRow;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SyntheticDataGeneratorTest {
+
+    @Test
+    void sameSeedSameRows() {
+        List<MemberIngestRow> first = SyntheticDataGenerator.members(1_000).seed(7).rows().toList();
+        List<MemberIngestRow> second = SyntheticDataGenerator.members(1_000).seed(7).rows().toList();
+
+        assertThat(first).hasSize(1_000).isEqualTo(second);
+    }
+
+    @Test
+    void skewedDistributions() {
+        List<MemberIngestRow> rows = SyntheticDataGenerator.members(10_000).teams(10).rows().toList();
+
+        Map<String, Long> perTeam = count(rows, MemberIngestRow::getTeamName);
+        assertThat(perTeam.keySet()).hasSizeLessThanOrEqualTo(10);
+        assertThat(perTeam.get("team0")).isGreaterThan(perTeam.get("team9") * 3); // 앞쪽 팀에 몰림
+
+        Map<String, Long> perUsername = count(rows, MemberIngestRow::getUsername);
+        assertThat(perUsername.get(SyntheticDataGenerator.username(0))).isGreaterThan(100); // 자주 쓰는 이름은 반복됨
+
+        assertThat(rows).allSatisfy(row -> assertThat(row.getAge()).isBetween(0, 99));
+        double averageAge = rows.stream().mapToInt(MemberIngestRow::getAge).average().orElseThrow();
+        assertThat(averageAge).isBetween(30.0, 36.0);
+    }
+
+    private static Map<String, Long> count(List<MemberIngestRow> rows, Function<MemberIngestRow, String> key) {
+        return rows.stream().collect(Collectors.groupingBy(key, Collectors.counting()));
+    }
+}
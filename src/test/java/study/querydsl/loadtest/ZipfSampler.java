@@ -0,0 +1,33 @@
+package study.querydsl.loadtest;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/*
+ * 0 ~ n-1 을 Zipf 분포로 뽑는다. (0 이 가장 자주 나옴)
+ * exponent 가 0 이면 균등 분포, 클수록 앞쪽에 몰린다.
+ */
+class ZipfSampler {
+
+    private final double[] cdf;
+
+    ZipfSampler(int n, double exponent) {
+        if (n < 1) {
+            throw new IllegalArgumentException("n must be positive: " + n);
+        }
+        cdf = new double[n];
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += 1.0 / Math.pow(i + 1, exponent);
+            cdf[i] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cdf[i] /= sum;
+        }
+    }
+
+    int next(SplittableRandom random) {
+        int index = Arrays.binarySearch(cdf, random.nextDouble());
+        return Math.min(index >= 0 ? index : -index - 1, cdf.length - 1);
+    }
+}
@@ -0,0 +1,82 @@
+package study.querydsl.monitoring;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+// HTTP 요청 없이 시작한 트랜잭션(배치, 백그라운드 작업)도 작업 단위로 센다. 트랜잭션을 직접 시작하므로 데이터를 커밋해 둔다.
+@SpringBootTest
+class QueryCountTransactionListenerTest {
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    JPAQueryFactory queryFactory;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    TransactionTemplate tx;
+
+    @BeforeEach
+    void before() {
+        tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            em.createQuery("delete from Member").executeUpdate();
+            em.createQuery("delete from Team").executeUpdate();
+            for (int i = 0; i < 6; i++) { // threshold 5
+                Team team = new Team("team" + i);
+                em.persist(team);
+                em.persist(new Member("member" + i, 10 * i, team));
+            }
+        });
+    }
+
+    @AfterEach
+    void after() {
+        tx.executeWithoutResult(status -> {
+            em.createQuery("delete from Member").executeUpdate();
+            em.createQuery("delete from Team").executeUpdate();
+        });
+    }
+
+    @Test
+    void nPlusOneInsideTransactionIsDetected() {
+        double before = detected();
+
+        tx.executeWithoutResult(status -> queryFactory.selectFrom(member).fetch()
+                .forEach(m -> m.getTeam().getName())); // 지연 로딩 -> 팀마다 select
+
+        assertThat(detected()).isEqualTo(before + 1);
+    }
+
+    @Test
+    void fetchJoinInsideTransactionIsNotDetected() {
+        double before = detected();
+
+        tx.executeWithoutResult(status -> queryFactory.selectFrom(member)
+                .join(member.team, team).fetchJoin()
+                .fetch()
+                .forEach(m -> m.getTeam().getName()));
+
+        assertThat(detected()).isEqualTo(before);
+    }
+
+    private double detected() {
+        return meterRegistry.counter("querydsl.nplusone.detected").count();
+    }
+}
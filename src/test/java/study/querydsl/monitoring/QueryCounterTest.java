@@ -0,0 +1,79 @@
+package study.querydsl.monitoring;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+@SpringBootTest
+@Transactional
+class QueryCounterTest {
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    JPAQueryFactory queryFactory;
+    @Autowired
+    QueryCounter queryCounter;
+
+    @BeforeEach
+    void before() {
+        em.createQuery("delete from Member").executeUpdate();
+        em.createQuery("delete from Team").executeUpdate();
+
+        for (int i = 0; i < 3; i++) {
+            Team team = new Team("team" + i);
+            em.persist(team);
+            em.persist(new Member("member" + i, 10 * i, team));
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void detectsNPlusOne() {
+        try (QueryScope scope = queryCounter.open("fetchJoinNo")) {
+            List<Member> members = queryFactory.selectFrom(member).fetch();
+            members.forEach(m -> m.getTeam().getName()); // 지연 로딩 -> 팀마다 select
+
+            assertThat(scope.getStatementCount()).isEqualTo(4);
+            assertThat(scope.repeatedShapes(3)).hasSize(1);
+            assertThatThrownBy(() -> scope.assertNoRepeatedStatements(3))
+                    .isInstanceOf(NPlusOneDetectedException.class);
+        }
+    }
+
+    @Test
+    void fetchJoinHasNoRepeatedStatements() {
+        try (QueryScope scope = queryCounter.open("fetchJoin")) {
+            List<Member> members = queryFactory
+                    .selectFrom(member)
+                    .join(member.team, team).fetchJoin()
+                    .fetch();
+            members.forEach(m -> m.getTeam().getName());
+
+            assertThat(scope.getStatementCount()).isEqualTo(1);
+            scope.assertNoRepeatedStatements(2);
+        }
+    }
+
+    @Test
+    void shapeIgnoresLiteralsAndInListLength() {
+        assertThat(QueryScope.shapeOf("/* comment */ select * from member where age in (?, ?, ?) and name = 'a'"))
+                .isEqualTo(QueryScope.shapeOf("select *  from member\n where age in (?) and name = 'bb'"));
+        assertThat(QueryScope.shapeOf("select * from member where member_id = 10"))
+                .isEqualTo("select * from member where member_id = ?");
+    }
+}
@@ -0,0 +1,129 @@
+package study.querydsl.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.entity.Member;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static study.querydsl.entity.QMember.member;
+
+@SpringBootTest
+@Transactional
+class QueryMetricsTest {
+
+    @Autowired
+    EntityManager em;
+
+    SimpleMeterRegistry meterRegistry;
+    QueryMetrics queryMetrics;
+    InstrumentedJPAQueryFactory queryFactory;
+
+    @BeforeEach
+    void before() {
+        em.createQuery("delete from Member").executeUpdate();
+        for (int i = 0; i < 5; i++) {
+            em.persist(new Member("member" + i, i * 10));
+        }
+        em.flush();
+        em.clear();
+
+        QueryMetricsProperties properties = new QueryMetricsProperties();
+        properties.setSlowQueryThreshold(Duration.ZERO); // 모든 쿼리를 slow query 로 로그
+        meterRegistry = new SimpleMeterRegistry();
+        queryMetrics = new QueryMetrics(properties, meterRegistry);
+        queryFactory = new InstrumentedJPAQueryFactory(em, queryMetrics, event -> { });
+    }
+
+    @Test
+    void recordsPerShape() {
+        for (int age : new int[]{10, 20, 30}) { // 파라미터 값만 다르면 같은 shape
+            queryFactory.selectFrom(member).where(member.age.goe(age)).fetch();
+        }
+        queryFactory.select(member.username).from(member).where(member.username.eq("member1")).fetchOne();
+
+        assertThat(queryMetrics.getShapes()).hasSize(2);
+        Timer fetch = meterRegistry.get("querydsl.query").tags("operation", "fetch", "entity", "Member").timer();
+        assertThat(fetch.count()).isEqualTo(3);
+        DistributionSummary rows = meterRegistry.get("querydsl.query.rows").tags("operation", "fetch").summary();
+        assertThat(rows.totalAmount()).isEqualTo(4 + 3 + 2);
+        assertThat(meterRegistry.get("querydsl.query").tags("operation", "fetchOne").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void streamRecordedOnClose() {
+        try (Stream<Member> stream = queryFactory.selectFrom(member).stream()) {
+            assertThat(stream.count()).isEqualTo(5);
+            assertThat(meterRegistry.find("querydsl.query").tags("operation", "stream").timer()).isNull();
+        }
+
+        assertThat(meterRegistry.get("querydsl.query.rows").tags("operation", "stream").summary().totalAmount())
+                .isEqualTo(5);
+    }
+
+    @Test
+    void streamFailureRecordedAsError() {
+        try (Stream<Member> stream = queryFactory.selectFrom(member).stream()) {
+            assertThatThrownBy(() -> stream.forEach(m -> {
+                throw new IllegalStateException("boom");
+            })).isInstanceOf(IllegalStateException.class);
+        }
+
+        assertThat(meterRegistry.get("querydsl.query").tags("operation", "stream", "outcome", "error").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.find("querydsl.query").tags("operation", "stream", "outcome", "success").timer()).isNull();
+    }
+
+    @Test
+    void shapeTagIsStableDigest() {
+        assertThat(QueryMetrics.digest("select member1 from Member member1"))
+                .hasSize(16)
+                .isEqualTo(QueryMetrics.digest("select member1 from Member member1"))
+                .isNotEqualTo(QueryMetrics.digest("select member1 from Member member1 where member1.age = ?1"));
+    }
+
+    @Test
+    void updateAndDelete() {
+        queryFactory.update(member).set(member.age, 0).where(member.age.lt(20)).execute();
+        queryFactory.delete(member).where(member.age.eq(0)).execute();
+
+        assertThat(meterRegistry.get("querydsl.query.rows").tags("operation", "update").summary().totalAmount())
+                .isEqualTo(2);
+        assertThat(meterRegistry.get("querydsl.query.rows").tags("operation", "delete").summary().totalAmount())
+                .isEqualTo(2);
+        assertThat(queryMetrics.getShapes().values()).extracting("operation").containsExactlyInAnyOrder("update", "delete");
+    }
+
+    @Test
+    void recordsExecutedJpql() {
+        InstrumentedJPAQuery<Member> query = (InstrumentedJPAQuery<Member>) queryFactory.selectFrom(member)
+                .where(member.age.goe(10));
+        query.fetch();
+        InstrumentedJPAUpdateClause update = queryFactory.update(member);
+        update.set(member.age, 0).where(member.age.lt(20)).execute();
+
+        assertThat(queryMetrics.getShapes().values()).extracting("jpql")
+                .containsExactlyInAnyOrder(query.toString(), update.toString());
+    }
+
+    @Test
+    void redactParameters() {
+        List<Object> parameters = Arrays.asList("secret", 20, new ArrayList<>(List.of(1L, 2L)), null);
+
+        assertThat(QueryMetrics.describe(parameters, true)).isEqualTo("[?1=String(6), ?2=Integer, ?3=ArrayList(2), ?4=null]");
+        assertThat(QueryMetrics.describe(parameters, false)).isEqualTo("[?1=secret, ?2=20, ?3=[1, 2], ?4=null]");
+    }
+}
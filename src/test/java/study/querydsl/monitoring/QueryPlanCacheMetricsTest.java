@@ -0,0 +1,96 @@
+package study.querydsl.monitoring;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.entity.Member;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QMember.member;
+
+@SpringBootTest
+@Transactional
+@Import(SqlCapture.class)
+class QueryPlanCacheMetricsTest {
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+    @Autowired
+    JPAQueryFactory queryFactory;
+    @Autowired
+    QueryCounter queryCounter;
+    @Autowired
+    SqlCapture sqlCapture;
+
+    SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void before() {
+        em.createQuery("delete from Member").executeUpdate();
+        for (int i = 0; i < 100; i++) {
+            em.persist(new Member("member" + i, i));
+        }
+        em.flush();
+        em.clear();
+
+        // generate_statistics 는 기본으로 꺼져 있다.
+        entityManagerFactory.unwrap(SessionFactory.class).getStatistics().setStatisticsEnabled(true);
+        meterRegistry = new SimpleMeterRegistry();
+        new QueryPlanCacheMetrics(entityManagerFactory).bindTo(meterRegistry);
+    }
+
+    @AfterEach
+    void after() {
+        entityManagerFactory.unwrap(SessionFactory.class).getStatistics().setStatisticsEnabled(false);
+    }
+
+    @Test
+    void inClauseParameterPadding() {
+        try (QueryScope scope = queryCounter.open("subQueryIn");
+             SqlCapture.Captured captured = sqlCapture.start()) {
+            for (int size = 2; size <= 64; size++) {
+                List<Integer> ages = IntStream.range(0, size).boxed().toList();
+                List<Member> result = queryFactory
+                        .selectFrom(member)
+                        .where(member.age.in(ages))
+                        .fetch();
+                assertThat(result).hasSize(size);
+            }
+
+            // 패딩이 없으면 63개, 2의 거듭제곱 버킷(2, 4, 8, 16, 32, 64)으로 맞추면 6개
+            assertThat(scope.getStatementCount()).isEqualTo(63);
+            assertThat(captured.getDistinctSql()).hasSizeLessThanOrEqualTo(6);
+        }
+    }
+
+    @Test
+    void planCacheMetrics() {
+        double hitsBefore = hits();
+        for (int i = 0; i < 10; i++) {
+            queryFactory.selectFrom(member).where(member.age.in(1, 2, 3)).fetch(); // JPQL 은 "member1.age in ?1" 하나
+        }
+
+        assertThat(hits() - hitsBefore).isGreaterThanOrEqualTo(9);
+        assertThat(meterRegistry.get("hibernate.query.plan.cache.requests").tag("result", "miss").functionCounter().count())
+                .isGreaterThanOrEqualTo(1);
+        assertThat(meterRegistry.get("hibernate.query.plan.cache.size").gauge().value()).isGreaterThanOrEqualTo(1);
+    }
+
+    private double hits() {
+        return meterRegistry.get("hibernate.query.plan.cache.requests").tag("result", "hit").functionCounter().count();
+    }
+}
@@ -0,0 +1,58 @@
+package study.querydsl.monitoring;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.JdbcEventListener;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/*
+ * 테스트 전용: 실행된 SQL 문자열을 그대로 모은다. (EXPLAIN, PreparedStatement 개수 확인 등)
+ * 운영 코드의 QueryCounter 는 모양별 개수만 센다.
+ *
+ * @Import(SqlCapture.class) 로 등록하면 p6spy-spring-boot-starter 가 리스너로 붙인다.
+ * try (SqlCapture.Captured captured = sqlCapture.start()) { ... captured.getSqlWithValues() }
+ */
+public class SqlCapture extends JdbcEventListener {
+
+    private final ThreadLocal<Captured> current = new ThreadLocal<>();
+
+    public Captured start() {
+        Captured captured = new Captured();
+        current.set(captured);
+        return captured;
+    }
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        Captured captured = current.get();
+        if (captured != null && statementInformation.getSql() != null) {
+            captured.sqlWithValues.add(statementInformation.getSqlWithValues());
+            captured.distinctSql.add(statementInformation.getSql());
+        }
+    }
+
+    public class Captured implements AutoCloseable {
+
+        private final List<String> sqlWithValues = new ArrayList<>();
+        private final Set<String> distinctSql = new LinkedHashSet<>();
+
+        // 실행 순서대로, 바인딩 값이 채워진 SQL
+        public List<String> getSqlWithValues() {
+            return List.copyOf(sqlWithValues);
+        }
+
+        // 바인딩 값 없는 SQL 문자열 그대로 (in 절 길이가 다르면 다른 SQL = 다른 PreparedStatement)
+        public Set<String> getDistinctSql() {
+            return Set.copyOf(distinctSql);
+        }
+
+        @Override
+        public void close() {
+            current.remove();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package study.querydsl.repository;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.entity.Member;
+import study.querydsl.repository.support.KeysetPage;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QMember.member;
+
+/*
+ * offset 페이징 vs keyset 페이징
+ * ./gradlew performanceTest -Dperf.members=100000
+ */
+@Tag("performance")
+@ActiveProfiles("perf")
+@SpringBootTest
+@Transactional
+class KeysetPagingBenchmarkTest {
+
+    static final int MEMBERS = Integer.getInteger("perf.members", 100_000);
+    static final int PAGE_SIZE = 10;
+    static final int DEEP_PAGE = MEMBERS / PAGE_SIZE; // 마지막 페이지 (기본 10,000 페이지)
+    static final int RUNS = 20;
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    JPAQueryFactory queryFactory;
+    @Autowired
+    MemberRepository memberRepository;
+
+    @BeforeEach
+    void before() {
+        for (int i = 0; i < MEMBERS; i++) {
+            em.persist(new Member(String.format("member%07d", i), i % 100));
+            if (i % 1_000 == 0) {
+                em.flush();
+                em.clear();
+            }
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void offsetVsKeyset() {
+        // deep 페이지의 커서는 바로 앞 행의 정렬 키로 만든다.
+        Member lastOfPrevPage = offsetPage(DEEP_PAGE - 1).get(PAGE_SIZE - 1);
+        String deepCursor = MemberRepositoryImpl.USERNAME_DESC.cursorOf(lastOfPrevPage);
+
+        List<Member> offsetDeep = offsetPage(DEEP_PAGE);
+        KeysetPage<Member> keysetDeep = memberRepository.searchByKeyset(deepCursor, PAGE_SIZE);
+        assertThat(keysetDeep.getContent()).extracting("id")
+                .containsExactlyElementsOf(offsetDeep.stream().map(Member::getId).toList());
+
+        report("offset page 1", () -> offsetPage(1));
+        report("offset page " + DEEP_PAGE, () -> offsetPage(DEEP_PAGE));
+        report("keyset page 1", () -> memberRepository.searchByKeyset(null, PAGE_SIZE));
+        report("keyset page " + DEEP_PAGE, () -> memberRepository.searchByKeyset(deepCursor, PAGE_SIZE));
+    }
+
+    private List<Member> offsetPage(int page) {
+        return queryFactory
+                .selectFrom(member)
+                .where(member.username.isNotNull())
+                .orderBy(member.username.desc(), member.id.desc())
+                .offset((long) (page - 1) * PAGE_SIZE)
+                .limit(PAGE_SIZE)
+                .fetch();
+    }
+
+    private void report(String name, Supplier<?> query) {
+        for (int i = 0; i < 5; i++) { // warm up
+            query.get();
+            em.clear();
+        }
+
+        long[] elapsed = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            query.get();
+            elapsed[i] = System.nanoTime() - start;
+            em.clear();
+        }
+        Arrays.sort(elapsed);
+        System.out.printf("%-22s p50 = %8.3f ms, max = %8.3f ms%n",
+                name, elapsed[RUNS / 2] / 1_000_000.0, elapsed[RUNS - 1] / 1_000_000.0);
+    }
+}
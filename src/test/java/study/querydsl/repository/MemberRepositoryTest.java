@@ -0,0 +1,173 @@
+package study.querydsl.repository;
+
+import com.querydsl.jpa.HQLTemplates;
+import com.querydsl.jpa.JPAExpressions;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.monitoring.QueryCounter;
+import study.querydsl.monitoring.QueryScope;
+import study.querydsl.repository.support.KeysetPage;
+import study.querydsl.repository.support.QueryShapeCache;
+import study.querydsl.repository.support.QueryShapeCacheProperties;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static study.querydsl.entity.QMember.member;
+
+@SpringBootTest
+@Transactional
+class MemberRepositoryTest {
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    QueryShapeCache queryShapeCache;
+    @Autowired
+    QueryCounter queryCounter;
+
+    @BeforeEach
+    void before() {
+        // 다른 테스트가 커밋한 데이터 제거 (테스트 종료 시 롤백됨)
+        em.createQuery("delete from Member").executeUpdate();
+        em.createQuery("delete from Team").executeUpdate();
+
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamB));
+        em.persist(new Member("member4", 40, teamB));
+        em.persist(new Member("member4", 41, teamB)); // 정렬 키가 같은 경우 id로 구분
+    }
+
+    @Test
+    void searchByKeyset() {
+        KeysetPage<Member> page1 = memberRepository.searchByKeyset(null, 2);
+        assertThat(page1.getContent()).extracting("age").containsExactly(41, 40);
+        assertThat(page1.hasNext()).isTrue();
+
+        KeysetPage<Member> page2 = memberRepository.searchByKeyset(page1.getNextCursor(), 2);
+        assertThat(page2.getContent()).extracting("username").containsExactly("member3", "member2");
+        assertThat(page2.hasNext()).isTrue();
+
+        KeysetPage<Member> page3 = memberRepository.searchByKeyset(page2.getNextCursor(), 2);
+        assertThat(page3.getContent()).extracting("username").containsExactly("member1");
+        assertThat(page3.hasNext()).isFalse();
+    }
+
+    @Test
+    void searchByKeyset_invalidSize() {
+        assertThatThrownBy(() -> memberRepository.searchByKeyset(null, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> memberRepository.searchByKeyset(null, -1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void searchByKeyset_invalidCursor() {
+        assertThatThrownBy(() -> memberRepository.searchByKeyset("not-a-cursor", 2))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void searchPage() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(20);
+        condition.setTeamName("teamB");
+
+        Page<MemberTeamDto> result = memberRepository.searchPage(condition, PageRequest.of(0, 2));
+
+        assertThat(result.getContent()).extracting("age").containsExactly(30, 40);
+        assertThat(result.getTotalElements()).isEqualTo(3);
+        assertThat(result.getTotalPages()).isEqualTo(2);
+    }
+
+    @Test
+    void searchPage_withoutTeamCondition() {
+        // 첫 페이지가 pageSize보다 작으면 count 쿼리 없이 content 크기가 전체 건수
+        Page<MemberTeamDto> result = memberRepository.searchPage(new MemberSearchCondition(), PageRequest.of(0, 10));
+
+        assertThat(result.getContent()).hasSize(5);
+        assertThat(result.getTotalElements()).isEqualTo(5);
+        assertThat(result.getContent()).extracting("teamName")
+                .containsExactly("teamA", "teamA", "teamB", "teamB", "teamB");
+    }
+
+    // content 만으로 전체 건수를 알 수 있으면(짧은 첫 페이지, 마지막 페이지) count 쿼리를 실행하지 않는다.
+    @Test
+    void searchPage_skipsCountQuery() {
+        em.flush(); // insert 가 scope 에 섞이지 않게
+
+        assertThat(statementCount(PageRequest.of(0, 10))).isEqualTo(1); // 짧은 첫 페이지
+        assertThat(statementCount(PageRequest.of(1, 3))).isEqualTo(1); // 마지막 페이지 (2건)
+        assertThat(statementCount(PageRequest.of(0, 2))).isEqualTo(2); // 다음 페이지가 있으면 count
+    }
+
+    @Test
+    void searchPage_sort() {
+        Page<MemberTeamDto> result = memberRepository.searchPage(new MemberSearchCondition(),
+                PageRequest.of(0, 3, Sort.by(Sort.Order.asc("teamName"), Sort.Order.desc("age"))));
+        assertThat(result.getContent()).extracting("age").containsExactly(20, 10, 41);
+
+        // 정렬할 수 없는 속성은 무시하고 id 순
+        Page<MemberTeamDto> unknown = memberRepository.searchPage(new MemberSearchCondition(),
+                PageRequest.of(0, 2, Sort.by("teamId")));
+        assertThat(unknown.getContent()).extracting("age").containsExactly(10, 20);
+    }
+
+    private int statementCount(PageRequest pageable) {
+        try (QueryScope scope = queryCounter.open("searchPage")) {
+            memberRepository.searchPage(new MemberSearchCondition(), pageable);
+            return scope.getStatementCount();
+        }
+    }
+
+    @Test
+    void searchMembers() {
+        assertThat(memberRepository.searchMembers("member1", null)).extracting("age").containsExactly(10);
+        assertThat(memberRepository.searchMembers("member4", 41)).extracting("age").containsExactly(41);
+        assertThat(memberRepository.searchMembers(null, 20)).extracting("username").containsExactly("member2");
+        assertThat(memberRepository.searchMembers(null, null)).hasSize(5);
+
+        int shapes = queryShapeCache.size();
+        // 값만 다르면 같은 모양 -> 캐시가 늘지 않는다.
+        assertThat(memberRepository.searchMembers("member2", null)).extracting("age").containsExactly(20);
+        assertThat(memberRepository.searchMembers("member3", 30)).extracting("age").containsExactly(30);
+        assertThat(queryShapeCache.size()).isEqualTo(shapes);
+    }
+
+    // 값으로 키를 잘못 만들어도 크기 상한을 넘지 않는다.
+    @Test
+    void queryShapeCacheIsBounded() {
+        QueryShapeCacheProperties properties = new QueryShapeCacheProperties();
+        properties.setMaximumSize(2);
+        QueryShapeCache cache = new QueryShapeCache(em, HQLTemplates.DEFAULT, properties);
+
+        for (int age = 10; age <= 50; age += 10) {
+            int value = age;
+            assertThat(cache.fetch(List.of("byAge", value),
+                    () -> JPAExpressions.selectFrom(member).where(member.age.eq(value)), Map.of()))
+                    .hasSizeLessThanOrEqualTo(1);
+        }
+        assertThat(cache.size()).isLessThanOrEqualTo(2);
+    }
+}
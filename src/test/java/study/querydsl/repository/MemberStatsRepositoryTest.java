@@ -0,0 +1,137 @@
+package study.querydsl.repository;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.MemberAgeSummaryDto;
+import study.querydsl.dto.TeamAgeDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.repository.support.BulkOperations;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QMember.member;
+
+// 쓰기 트랜잭션 안에서는 캐시를 쓰지 않으므로 데이터를 커밋해 두고 트랜잭션 밖에서 조회한다.
+@SpringBootTest
+class MemberStatsRepositoryTest {
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    MemberStatsRepository memberStatsRepository;
+    @Autowired
+    BulkOperations bulkOperations;
+    @Autowired
+    CacheManager cacheManager;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    TransactionTemplate tx;
+
+    @BeforeEach
+    void before() {
+        tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            em.createQuery("delete from Member").executeUpdate();
+            em.createQuery("delete from Team").executeUpdate();
+
+            Team teamA = new Team("teamA");
+            Team teamB = new Team("teamB");
+            em.persist(teamA);
+            em.persist(teamB);
+
+            em.persist(new Member("member1", 10, teamA));
+            em.persist(new Member("member2", 20, teamA));
+            em.persist(new Member("member3", 30, teamB));
+            em.persist(new Member("member4", 40, teamB));
+        });
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @AfterEach
+    void after() {
+        tx.executeWithoutResult(status -> {
+            em.createQuery("delete from Member").executeUpdate();
+            em.createQuery("delete from Team").executeUpdate();
+        });
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Test
+    void cachedUntilBulkOperation() {
+        CacheStats before = stats(MemberStatsRepository.TEAM_AGE_AVERAGES);
+        List<TeamAgeDto> first = memberStatsRepository.findTeamAgeAverages();
+        List<TeamAgeDto> second = memberStatsRepository.findTeamAgeAverages();
+
+        assertThat(second).isSameAs(first);
+        assertThat(first).extracting("ageAvg").containsExactly(15.0, 35.0);
+        CacheStats stats = stats(MemberStatsRepository.TEAM_AGE_AVERAGES).minus(before);
+        assertThat(stats.hitCount()).isEqualTo(1);
+        assertThat(stats.missCount()).isEqualTo(1);
+
+        // bulkAdd
+        tx.executeWithoutResult(status -> bulkOperations.update(member, null, c -> c.set(member.age, member.age.add(1))));
+
+        List<TeamAgeDto> afterBulk = memberStatsRepository.findTeamAgeAverages();
+        assertThat(afterBulk).extracting("ageAvg").containsExactly(16.0, 36.0);
+    }
+
+    @Test
+    void summaryEvictedByBulkDelete() {
+        MemberAgeSummaryDto summary = memberStatsRepository.findAgeSummary();
+        assertThat(summary).isEqualTo(new MemberAgeSummaryDto(4, 100, 25, 40, 10));
+
+        // bulkDelete
+        tx.executeWithoutResult(status -> bulkOperations.delete(member, member.age.gt(18)));
+
+        assertThat(memberStatsRepository.findAgeSummary())
+                .isEqualTo(new MemberAgeSummaryDto(1, 10, 10, 10, 10));
+    }
+
+    // 롤백된 벌크 연산의 값은 캐시에 남지 않는다.
+    @Test
+    void rolledBackBulkUpdateIsNotCached() {
+        assertThat(memberStatsRepository.findTeamAgeAverages()).extracting("ageAvg").containsExactly(15.0, 35.0);
+
+        tx.executeWithoutResult(status -> {
+            bulkOperations.update(member, null, c -> c.set(member.age, member.age.add(1)));
+            // 같은 트랜잭션 안에서는 자기 변경이 보이지만 캐시하지 않는다.
+            assertThat(memberStatsRepository.findTeamAgeAverages()).extracting("ageAvg").containsExactly(16.0, 36.0);
+            assertThat(memberStatsRepository.findAgeSummary().getSum()).isEqualTo(104);
+            status.setRollbackOnly();
+        });
+
+        assertThat(memberStatsRepository.findTeamAgeAverages()).extracting("ageAvg").containsExactly(15.0, 35.0);
+        assertThat(memberStatsRepository.findAgeSummary()).isEqualTo(new MemberAgeSummaryDto(4, 100, 25, 40, 10));
+    }
+
+    // 쓰기 트랜잭션 안에서는 캐시를 읽지도 채우지도 않는다.
+    @Test
+    void writeTransactionsBypassCache() {
+        memberStatsRepository.findTeamAgeAverages(); // 트랜잭션 밖 -> 캐시
+        CacheStats before = stats(MemberStatsRepository.TEAM_AGE_AVERAGES);
+
+        tx.executeWithoutResult(status -> {
+            memberStatsRepository.findTeamAgeAverages();
+            memberStatsRepository.findTeamAgeAverages();
+        });
+
+        CacheStats stats = stats(MemberStatsRepository.TEAM_AGE_AVERAGES).minus(before);
+        assertThat(stats.requestCount()).isZero();
+    }
+
+    private CacheStats stats(String cacheName) {
+        return ((CaffeineCache) cacheManager.getCache(cacheName)).getNativeCache().stats();
+    }
+}
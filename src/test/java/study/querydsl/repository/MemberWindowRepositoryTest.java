@@ -0,0 +1,94 @@
+package study.querydsl.repository;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberAgeWindowDto;
+import study.querydsl.dto.MemberDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.QMember;
+import study.querydsl.entity.Team;
+
+import java.util.List;
+
+import static com.querydsl.jpa.JPAExpressions.select;
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QMember.member;
+
+@SpringBootTest
+@Transactional
+class MemberWindowRepositoryTest {
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    JPAQueryFactory queryFactory;
+    @Autowired
+    MemberWindowRepository memberWindowRepository;
+
+    @BeforeEach
+    void before() {
+        em.createQuery("delete from Member").executeUpdate();
+        em.createQuery("delete from Team").executeUpdate();
+
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamB));
+        em.persist(new Member("member4", 40, teamB));
+        em.persist(new Member("member5", 40, teamB)); // 동순위
+        em.persist(new Member("member6", 50)); // 팀 없음
+
+        // SQLQueryFactory 는 같은 커넥션을 쓰지만 JPA 쓰기 지연 SQL 은 flush 해야 보인다.
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void topByAgePerTeam() {
+        List<MemberDto> result = memberWindowRepository.findTopByAgePerTeam(1);
+
+        assertThat(result).extracting("username").containsExactly("member2", "member4", "member5");
+    }
+
+    @Test
+    void sameResultAsSubQuery() {
+        QMember memberSub = new QMember("memberSub");
+
+        List<String> oldest = queryFactory
+                .select(member.username)
+                .from(member)
+                .where(member.age.eq(select(memberSub.age.max()).from(memberSub)))
+                .orderBy(member.id.asc())
+                .fetch();
+        List<String> goeAverage = queryFactory
+                .select(member.username)
+                .from(member)
+                .where(member.age.goe(select(memberSub.age.avg()).from(memberSub)))
+                .orderBy(member.id.asc())
+                .fetch();
+
+        assertThat(memberWindowRepository.findOldest()).extracting("username").containsExactlyElementsOf(oldest);
+        assertThat(memberWindowRepository.findAgeGoeAverage()).extracting("username").containsExactlyElementsOf(goeAverage);
+    }
+
+    @Test
+    void ageWindows() {
+        List<MemberAgeWindowDto> result = memberWindowRepository.findAgeWindows();
+
+        // 팀 없는 회원은 inner join 으로 제외된다.
+        assertThat(result).extracting("username")
+                .containsExactly("member2", "member1", "member4", "member5", "member3");
+        assertThat(result).extracting("ageRank").containsExactly(1L, 2L, 1L, 1L, 3L);
+        assertThat(result).extracting("runningAvgAge").containsExactly(20.0, 15.0, 40.0, 40.0, 110.0 / 3);
+        assertThat(result).extracting("teamAvgAge").containsExactly(15.0, 15.0, 110.0 / 3, 110.0 / 3, 110.0 / 3);
+    }
+}
@@ -0,0 +1,141 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.monitoring.SqlCapture;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+/*
+ * 자주 쓰는 검색 쿼리(QuerydslBasicTest 의 search, searchParam, dynamicQuery_*, join_on_filtering,
+ * MemberRepository 검색)를 실행하고, 실제로 나간 SQL에 EXPLAIN 을 돌려 full table scan 이 없는지 확인한다.
+ * H2 실행 계획에서 full scan 은 "/* PUBLIC.MEMBER.tableScan * /" 로 표시된다.
+ */
+@SpringBootTest
+@Transactional
+@Import(SqlCapture.class)
+class QueryPlanTest {
+
+    private static final Pattern TABLE_SCAN = Pattern.compile("/\\* PUBLIC\\.(\\w+)\\.tableScan");
+    private static final Pattern LEADING_COMMENT = Pattern.compile("^\\s*/\\*.*?\\*/", Pattern.DOTALL);
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    JPAQueryFactory queryFactory;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    SqlCapture sqlCapture;
+
+    @BeforeEach
+    void before() {
+        em.createQuery("delete from Member").executeUpdate();
+        em.createQuery("delete from Team").executeUpdate();
+
+        Team[] teams = new Team[10];
+        for (int i = 0; i < teams.length; i++) {
+            teams[i] = new Team("team" + i);
+            em.persist(teams[i]);
+        }
+        for (int i = 0; i < 1_000; i++) {
+            em.persist(new Member("member" + i, i % 100, teams[i % teams.length]));
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void usernameAndAgeRange() { // search, searchParam
+        assertNoTableScan(() -> queryFactory
+                .selectFrom(member)
+                .where(member.username.eq("member1"), member.age.between(10, 30))
+                .fetchOne());
+    }
+
+    @Test
+    void dynamicUsername() { // dynamicQuery_BooleanBuilder, dynamicQuery_WhereParam
+        assertNoTableScan(() -> queryFactory
+                .selectFrom(member)
+                .where(new BooleanBuilder(member.username.eq("member1")))
+                .fetch());
+        assertNoTableScan(() -> memberRepository.searchMembers("member1", null));
+        assertNoTableScan(() -> memberRepository.searchMembers("member1", 1));
+    }
+
+    @Test
+    void teamNameJoin() {
+        assertNoTableScan(() -> queryFactory
+                .selectFrom(member)
+                .join(member.team, team)
+                .where(team.name.eq("team1"), member.age.goe(50))
+                .fetch());
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("team1");
+        condition.setAgeGoe(50);
+        assertNoTableScan(() -> memberRepository.searchCount(condition));
+    }
+
+    @Test
+    void joinOnFiltering() {
+        // 회원은 모두 조회하므로 member 는 full scan, team 은 PK 로 찾아야 한다.
+        List<String> plans = explain(() -> queryFactory
+                .select(member, team)
+                .from(member)
+                .leftJoin(member.team, team)
+                .on(team.name.eq("team1"))
+                .fetch());
+
+        assertThat(plans).allSatisfy(plan -> assertThat(tableScans(plan)).containsOnly("MEMBER"));
+    }
+
+    private void assertNoTableScan(Runnable query) {
+        for (String plan : explain(query)) {
+            assertThat(tableScans(plan)).as(plan).isEmpty();
+        }
+    }
+
+    private List<String> explain(Runnable query) {
+        List<String> sqls;
+        try (SqlCapture.Captured captured = sqlCapture.start()) {
+            query.run();
+            sqls = captured.getSqlWithValues();
+        }
+        em.clear();
+
+        assertThat(sqls).isNotEmpty();
+        return sqls.stream()
+                .map(sql -> LEADING_COMMENT.matcher(sql).replaceFirst("").strip()) // use_sql_comments 로 붙은 JPQL 주석 제거
+                .filter(sql -> sql.regionMatches(true, 0, "select", 0, 6))
+                .map(sql -> String.valueOf(em.createNativeQuery("explain " + sql).getSingleResult()))
+                .toList();
+    }
+
+    private static Set<String> tableScans(String plan) {
+        Set<String> tables = new LinkedHashSet<>();
+        Matcher matcher = TABLE_SCAN.matcher(plan);
+        while (matcher.find()) {
+            tables.add(matcher.group(1));
+        }
+        return tables;
+    }
+}
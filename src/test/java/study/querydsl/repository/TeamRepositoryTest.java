@@ -0,0 +1,154 @@
+package study.querydsl.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.TeamMembersDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.monitoring.QueryCounter;
+import study.querydsl.monitoring.QueryMetrics;
+import study.querydsl.monitoring.QueryScope;
+import study.querydsl.repository.support.BulkOperations;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QTeam.team;
+
+// 2차 캐시는 커밋된 데이터만 공유되므로 트랜잭션마다 커밋하면서 확인한다.
+@SpringBootTest
+class TeamRepositoryTest {
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    EntityManagerFactory emf;
+    @Autowired
+    TeamRepository teamRepository;
+    @Autowired
+    BulkOperations bulkOperations;
+    @Autowired
+    QueryCounter queryCounter;
+    @Autowired
+    QueryMetrics queryMetrics;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    TransactionTemplate tx;
+    Statistics statistics;
+    Long teamId;
+
+    @BeforeEach
+    void before() {
+        tx = new TransactionTemplate(transactionManager);
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true); // generate_statistics 는 기본으로 꺼져 있다.
+        tx.executeWithoutResult(status -> {
+            em.createQuery("delete from Member").executeUpdate();
+            em.createQuery("delete from Team").executeUpdate();
+        });
+        emf.getCache().evictAll();
+
+        teamId = tx.execute(status -> {
+            Team teamA = new Team("teamA");
+            em.persist(teamA);
+            return teamA.getId();
+        });
+    }
+
+    @AfterEach
+    void after() {
+        tx.executeWithoutResult(status -> {
+            em.createQuery("delete from Member").executeUpdate();
+            em.createQuery("delete from Team").executeUpdate();
+        });
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    void teamIsServedFromSecondLevelCache() {
+        tx.executeWithoutResult(status -> em.find(Team.class, teamId)); // 캐시에 적재
+
+        long hits = statistics.getSecondLevelCacheHitCount();
+        try (QueryScope scope = queryCounter.open("cachedTeam")) {
+            String name = tx.execute(status -> em.find(Team.class, teamId).getName());
+
+            assertThat(name).isEqualTo("teamA");
+            assertThat(scope.getStatementCount()).isZero();
+        }
+        assertThat(statistics.getSecondLevelCacheHitCount()).isGreaterThan(hits);
+    }
+
+    @Test
+    void queryCacheAndInvalidationAfterBulkUpdate() {
+        assertThat(findByName("teamA")).hasSize(1);
+
+        try (QueryScope scope = queryCounter.open("queryCacheHit")) {
+            assertThat(findByName("teamA")).extracting("id").containsExactly(teamId);
+            assertThat(scope.getStatementCount()).isZero();
+        }
+
+        tx.executeWithoutResult(status ->
+                bulkOperations.update(team, team.id.eq(teamId), c -> c.set(team.name, "teamA2")));
+
+        // 벌크 update 로 Team region 과 쿼리 캐시가 무효화된다.
+        try (QueryScope scope = queryCounter.open("afterBulk")) {
+            assertThat(findByName("teamA")).isEmpty();
+            assertThat(tx.execute(status -> em.find(Team.class, teamId).getName())).isEqualTo("teamA2");
+            assertThat(scope.getStatementCount()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void teamsWithMembersPagingHasConstantQueryCount() {
+        tx.executeWithoutResult(status -> {
+            for (int i = 0; i < 5; i++) {
+                Team t = new Team("t" + i);
+                em.persist(t);
+                for (int j = 0; j < i * 3; j++) { // 팀마다 회원 수가 다름 (0, 3, 6, 9, 12)
+                    em.persist(new Member("t" + i + "-member" + j, j, t));
+                }
+            }
+        });
+
+        // 이름순: t0, t1, t2, t3, t4, teamA
+        for (int page = 0; page < 3; page++) {
+            int p = page;
+            try (QueryScope scope = queryCounter.open("teamsWithMembers" + page)) {
+                Page<TeamMembersDto> result = tx.execute(status -> teamRepository.findTeamsWithMembers(PageRequest.of(p, 2)));
+
+                assertThat(result.getTotalElements()).isEqualTo(6);
+                assertThat(result.getContent()).hasSize(2);
+                assertThat(scope.getStatementCount()).isEqualTo(3); // team 페이지, 회원 in 조회, count
+            }
+        }
+
+        Page<TeamMembersDto> second = tx.execute(status -> teamRepository.findTeamsWithMembers(PageRequest.of(1, 2)));
+        assertThat(second.getContent()).extracting("teamName").containsExactly("t2", "t3");
+        assertThat(second.getContent().get(0).getMembers()).hasSize(6);
+        assertThat(second.getContent().get(1).getMembers()).extracting("username")
+                .startsWith("t3-member0", "t3-member1").hasSize(9);
+
+        Page<TeamMembersDto> first = tx.execute(status -> teamRepository.findTeamsWithMembers(PageRequest.of(0, 2)));
+        assertThat(first.getContent().get(0).getMembers()).isEmpty(); // 회원 없는 팀
+
+        // 회원 in 조회도 queryFactory 로 만들어서 querydsl.query 메트릭(쿼리 모양)에 남는다.
+        assertThat(queryMetrics.getShapes().values())
+                .anyMatch(shape -> shape.getEntity().equals("Member") && shape.getJpql().contains("member1.team.id in"));
+    }
+
+    private List<Team> findByName(String name) {
+        return tx.execute(status -> teamRepository.findByNameCached(name));
+    }
+}
@@ -0,0 +1,104 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.monitoring.InstrumentedJPAQueryFactory;
+import study.querydsl.repository.MemberRepository;
+import study.querydsl.repository.MemberStatsRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QMember.member;
+
+// 메트릭을 꺼도 queryFactory.update/delete 는 BulkOperationEvent 를 발행한다.
+@SpringBootTest(properties = "querydsl.metrics.enabled=false")
+class BulkOperationEventTest {
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    JPAQueryFactory queryFactory;
+    @Autowired
+    UsernameIndex usernameIndex;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    MemberStatsRepository memberStatsRepository;
+    @Autowired
+    CacheManager cacheManager;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    TransactionTemplate tx;
+
+    @BeforeEach
+    void before() {
+        tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            em.createQuery("delete from Member").executeUpdate();
+            em.createQuery("delete from Team").executeUpdate();
+            Team teamA = new Team("teamA");
+            em.persist(teamA);
+            em.persist(new Member("lee", 10, teamA));
+            em.persist(new Member("kim", 20, teamA));
+        });
+        clear();
+    }
+
+    @AfterEach
+    void after() {
+        tx.executeWithoutResult(status -> {
+            em.createQuery("delete from Member").executeUpdate();
+            em.createQuery("delete from Team").executeUpdate();
+        });
+        clear();
+    }
+
+    @Test
+    void plainUpdateInvalidatesIndexAndStats() {
+        assertThat(queryFactory).isNotInstanceOf(InstrumentedJPAQueryFactory.class);
+        usernameIndex.rebuild();
+        assertThat(memberStatsRepository.findTeamAgeAverages()).extracting("ageAvg").containsExactly(15.0);
+
+        tx.executeWithoutResult(status -> queryFactory
+                .update(member)
+                .set(member.username, "parklee")
+                .set(member.age, 30)
+                .where(member.username.eq("lee"))
+                .execute());
+
+        assertThat(usernameIndex.find("par")).isEmpty(); // 무효화 -> 다시 만드는 중
+        usernameIndex.rebuild();
+        assertThat(usernames(memberRepository.searchByUsernameContaining("park"))).containsExactly("parklee");
+        assertThat(memberStatsRepository.findTeamAgeAverages()).extracting("ageAvg").containsExactly(25.0);
+    }
+
+    @Test
+    void plainDeleteEvictsStats() {
+        assertThat(memberStatsRepository.findAgeSummary().getCount()).isEqualTo(2);
+
+        tx.executeWithoutResult(status -> queryFactory.delete(member).where(member.username.eq("lee")).execute());
+
+        assertThat(memberStatsRepository.findAgeSummary().getCount()).isEqualTo(1);
+    }
+
+    private void clear() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        usernameIndex.invalidate();
+    }
+
+    private static List<String> usernames(List<Member> members) {
+        return members.stream().map(Member::getUsername).toList();
+    }
+}
@@ -0,0 +1,161 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.monitoring.QueryCounter;
+import study.querydsl.monitoring.QueryScope;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QMember.member;
+
+@SpringBootTest
+@Transactional
+class BulkOperationsTest {
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    JPAQueryFactory queryFactory;
+    @Autowired
+    BulkOperations bulkOperations;
+    @Autowired
+    QueryCounter queryCounter;
+
+    Team teamA;
+    Member member1, member2, member3, member4;
+
+    @BeforeEach
+    void before() {
+        em.createQuery("delete from Member").executeUpdate();
+
+        teamA = new Team("teamA");
+        em.persist(teamA);
+        member1 = new Member("member1", 10, teamA);
+        member2 = new Member("member2", 20, teamA);
+        member3 = new Member("member3", 30, teamA);
+        member4 = new Member("member4", 40, teamA);
+        em.persist(member1);
+        em.persist(member2);
+        em.persist(member3);
+        em.persist(member4);
+        em.flush();
+    }
+
+    @Test
+    void bulkUpdate_refreshesOnlyMatchingEntities() {
+        try (QueryScope scope = queryCounter.open("bulkUpdate")) {
+            long count = bulkOperations.update(member, member.age.lt(28), c -> c.set(member.username, "비회원"));
+
+            assertThat(count).isEqualTo(2);
+            // 대상 조회 1 + update 1 + refresh 2 (연관관계를 바꾸지 않으므로 teamA.members 는 건드리지 않음)
+            assertThat(scope.getStatementCount()).isEqualTo(4);
+        }
+
+        // em.clear() 없이도 최신 값이 보인다. (리피터블 리드로 인한 stale read 없음)
+        List<Member> result = queryFactory
+                .selectFrom(member)
+                .orderBy(member.age.asc())
+                .fetch();
+        assertThat(result).extracting("username").containsExactly("비회원", "비회원", "member3", "member4");
+        assertThat(member1.getUsername()).isEqualTo("비회원");
+
+        // 나머지 엔티티는 영속성 컨텍스트에 남아 있어 다시 로딩하지 않는다.
+        assertThat(em.contains(member3)).isTrue();
+        assertThat(em.contains(teamA)).isTrue();
+        try (QueryScope scope = queryCounter.open("afterBulk")) {
+            result.forEach(m -> m.getTeam().getName());
+            assertThat(scope.getStatementCount()).isZero();
+        }
+    }
+
+    @Test
+    void bulkUpdate_detach() {
+        bulkOperations.update(member, member.age.goe(30), c -> c.set(member.age, member.age.add(1)),
+                BulkOperations.ContextSync.DETACH);
+
+        assertThat(em.contains(member3)).isFalse();
+        assertThat(em.contains(member4)).isFalse();
+        assertThat(em.contains(member1)).isTrue();
+        assertThat(em.find(Member.class, member3.getId()).getAge()).isEqualTo(31);
+    }
+
+    @Test
+    void bulkDelete_detachesDeletedEntities() {
+        long count = bulkOperations.delete(member, member.age.gt(18));
+
+        assertThat(count).isEqualTo(3);
+        assertThat(em.contains(member1)).isTrue();
+        assertThat(em.contains(member2)).isFalse();
+        assertThat(em.find(Member.class, member2.getId())).isNull();
+        assertThat(queryFactory.selectFrom(member).fetch()).containsExactly(member1);
+    }
+
+    @Test
+    void bulkDelete_removesFromLoadedInverseCollection() {
+        em.clear();
+        Team team = em.find(Team.class, teamA.getId());
+        assertThat(team.getMembers()).hasSize(4); // 컬렉션 로딩
+
+        bulkOperations.delete(member, member.age.gt(18));
+
+        assertThat(team.getMembers()).extracting("username").containsExactly("member1");
+    }
+
+    // 연관관계를 set 하지 않는 update 는 로딩된 컬렉션을 다시 읽지 않는다.
+    @Test
+    void bulkUpdate_keepsLoadedInverseCollectionWhenAssociationUnchanged() {
+        em.clear();
+        Team team = em.find(Team.class, teamA.getId());
+        List<Member> members = team.getMembers();
+        assertThat(members).hasSize(4);
+
+        try (QueryScope scope = queryCounter.open("ageUpdate")) {
+            bulkOperations.update(member, null, c -> c.set(member.age, member.age.add(1)));
+            // update 1 + refresh 4
+            assertThat(scope.getStatementCount()).isEqualTo(5);
+        }
+
+        assertThat(team.getMembers()).isSameAs(members);
+        assertThat(members).extracting("age").containsExactlyInAnyOrder(11, 21, 31, 41);
+    }
+
+    @Test
+    void bulkUpdate_movesBetweenLoadedInverseCollections() {
+        Team teamB = new Team("teamB");
+        em.persist(teamB);
+        em.persist(new Member("member5", 50, teamB));
+        em.flush();
+        em.clear();
+        Team loadedA = em.find(Team.class, teamA.getId());
+        Team loadedB = em.find(Team.class, teamB.getId());
+        assertThat(loadedA.getMembers()).hasSize(4);
+        assertThat(loadedB.getMembers()).hasSize(1);
+
+        bulkOperations.update(member, member.age.goe(30), c -> c.set(member.team, loadedB));
+
+        assertThat(loadedA.getMembers()).extracting("username").containsExactlyInAnyOrder("member1", "member2");
+        assertThat(loadedB.getMembers()).extracting("username").containsExactlyInAnyOrder("member3", "member4", "member5");
+    }
+
+    @Test
+    void bulkUpdate_detachReplacesInstancesInLoadedInverseCollection() {
+        em.clear();
+        Team team = em.find(Team.class, teamA.getId());
+        assertThat(team.getMembers()).hasSize(4);
+
+        bulkOperations.update(member, member.age.goe(30), c -> c.set(member.age, member.age.add(1)),
+                BulkOperations.ContextSync.DETACH);
+
+        assertThat(team.getMembers()).hasSize(4).allMatch(em::contains);
+        assertThat(team.getMembers()).extracting("age").containsExactlyInAnyOrder(10, 20, 31, 41);
+    }
+}
@@ -0,0 +1,90 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Member;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QMember.member;
+
+// 청크마다 커밋하므로 @Transactional 을 붙이지 않는다.
+@SpringBootTest
+class ChunkedBulkExecutorTest {
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    JPAQueryFactory queryFactory;
+    @Autowired
+    ChunkedBulkExecutor chunkedBulkExecutor;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    TransactionTemplate tx;
+
+    @BeforeEach
+    void before() {
+        tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            em.createQuery("delete from Member").executeUpdate();
+            for (int i = 1; i <= 10; i++) {
+                em.persist(new Member("member" + i, i * 10));
+            }
+        });
+    }
+
+    @AfterEach
+    void after() {
+        tx.executeWithoutResult(status -> em.createQuery("delete from Member").executeUpdate());
+    }
+
+    @Test
+    void chunkedUpdate() {
+        List<ChunkedBulkProgress> progress = new ArrayList<>();
+
+        ChunkedBulkProgress result = chunkedBulkExecutor.execute(
+                ChunkedBulkJob.update(member, member.id, c -> c.set(member.age, member.age.add(1)))
+                        .where(member.age.gt(18))
+                        .chunkSize(4)
+                        .onProgress(progress::add));
+
+        assertThat(result.getTotalAffected()).isEqualTo(9);
+        assertThat(result.getChunks()).isEqualTo(3);
+        assertThat(progress).extracting("affected").containsExactly(4L, 4L, 1L);
+        assertThat(ages()).containsExactly(10, 21, 31, 41, 51, 61, 71, 81, 91, 101);
+    }
+
+    @Test
+    void chunkedDelete_resumeAfterLastProcessedId() {
+        List<Long> ids = queryFactory.select(member.id).from(member).orderBy(member.id.asc()).fetch();
+
+        // 3번째 회원까지 처리하고 중단된 상황에서 재시작
+        ChunkedBulkProgress result = chunkedBulkExecutor.execute(
+                ChunkedBulkJob.delete(member, member.id)
+                        .where(member.age.gt(18))
+                        .chunkSize(3)
+                        .resumeAfter(ids.get(2)));
+
+        assertThat(result.getTotalAffected()).isEqualTo(7);
+        assertThat(result.getLastProcessedId()).isEqualTo(ids.get(9));
+        assertThat(ages()).containsExactly(10, 20, 30);
+    }
+
+    private List<Integer> ages() {
+        return tx.execute(status -> queryFactory
+                .select(member.age)
+                .from(member)
+                .orderBy(member.age.asc())
+                .fetch());
+    }
+}
@@ -0,0 +1,82 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.ExpressionUtils;
+import com.querydsl.core.types.Projections;
+import com.querydsl.jpa.JPAExpressions;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberDto;
+import study.querydsl.dto.UserDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.QMember;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static study.querydsl.entity.QMember.member;
+
+@SpringBootTest
+@Transactional
+class CompiledProjectionsTest {
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    JPAQueryFactory queryFactory;
+
+    @BeforeEach
+    void before() {
+        em.createQuery("delete from Member").executeUpdate();
+        em.persist(new Member("member1", 10));
+        em.persist(new Member("member2", 20));
+        em.persist(new Member(null, 30)); // null 은 설정하지 않음
+    }
+
+    @Test
+    void sameResultAsProjections() {
+        assertThat(fetch(CompiledProjections.bean(MemberDto.class, member.username, member.age)))
+                .isEqualTo(fetch(Projections.bean(MemberDto.class, member.username, member.age)));
+        assertThat(fetch(CompiledProjections.fields(MemberDto.class, member.username, member.age)))
+                .isEqualTo(fetch(Projections.fields(MemberDto.class, member.username, member.age)));
+        assertThat(fetch(CompiledProjections.constructor(MemberDto.class, member.username, member.age)))
+                .isEqualTo(fetch(Projections.constructor(MemberDto.class, member.username, member.age)));
+    }
+
+    @Test
+    void alias() {
+        QMember memberSub = new QMember("memberSub");
+
+        List<UserDto> result = fetch(CompiledProjections.fields(UserDto.class,
+                member.username.as("name"),
+                ExpressionUtils.as(JPAExpressions.select(memberSub.age.max()).from(memberSub), "age")));
+
+        assertThat(result).extracting("name").containsExactly("member1", "member2", null);
+        assertThat(result).extracting("age").containsOnly(30);
+        assertThat(fetch(CompiledProjections.bean(UserDto.class, member.username.as("name"), member.age)))
+                .extracting("name").containsExactly("member1", "member2", null);
+    }
+
+    @Test
+    void invalidProjection() {
+        assertThatThrownBy(() -> CompiledProjections.bean(MemberDto.class, member.username, member.age.add(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CompiledProjections.bean(UserDto.class, member.username))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("setUsername");
+    }
+
+    private <T> List<T> fetch(Expression<T> projection) {
+        return queryFactory
+                .select(projection)
+                .from(member)
+                .orderBy(member.id.asc())
+                .fetch();
+    }
+}
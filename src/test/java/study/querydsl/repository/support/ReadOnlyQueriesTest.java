@@ -0,0 +1,107 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.jpa.JPAExpressions;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.MemberDto;
+import study.querydsl.dto.QMemberDto;
+import study.querydsl.entity.Member;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QMember.member;
+
+// StatelessSession 은 트랜잭션 밖에서 별도 커넥션을 사용하므로 데이터를 커밋해 두고 테스트한다.
+@SpringBootTest
+class ReadOnlyQueriesTest {
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    JPAQueryFactory queryFactory;
+    @Autowired
+    ReadOnlyQueries readOnlyQueries;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    TransactionTemplate tx;
+
+    @BeforeEach
+    void before() {
+        tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            em.createQuery("delete from Member").executeUpdate();
+            em.persist(new Member("member1", 10));
+            em.persist(new Member("member2", 20));
+        });
+    }
+
+    @AfterEach
+    void after() {
+        tx.executeWithoutResult(status -> em.createQuery("delete from Member").executeUpdate());
+    }
+
+    @Test
+    void readOnlyHint_notDirtyChecked() {
+        tx.executeWithoutResult(status -> {
+            Member findMember = ReadOnlyQueries.readOnly(queryFactory
+                            .selectFrom(member)
+                            .where(member.username.eq("member1")))
+                    .fetchOne();
+            findMember.setUsername("changed"); // read-only 엔티티라 flush 되지 않는다.
+        });
+
+        List<String> usernames = tx.execute(status -> queryFactory
+                .select(member.username)
+                .from(member)
+                .orderBy(member.username.asc())
+                .fetch());
+        assertThat(usernames).containsExactly("member1", "member2");
+    }
+
+    @Test
+    void fetchStateless() {
+        List<MemberDto> result = readOnlyQueries.fetchStateless(JPAExpressions
+                .select(new QMemberDto(member.username, member.age))
+                .from(member)
+                .where(member.age.goe(20)));
+
+        assertThat(result).containsExactly(new MemberDto("member2", 20));
+    }
+
+    @Test
+    void fetchStateless_singleColumn() {
+        List<String> result = readOnlyQueries.fetchStateless(JPAExpressions
+                .select(member.username)
+                .from(member)
+                .orderBy(member.username.desc()));
+
+        assertThat(result).containsExactly("member2", "member1");
+    }
+
+    // 트랜잭션 안에서는 그 커넥션을 같이 쓰므로 flush 된(커밋 전) 변경이 보인다.
+    @Test
+    void fetchStateless_insideTransactionSharesConnection() {
+        tx.executeWithoutResult(status -> {
+            em.persist(new Member("member3", 30));
+            em.flush();
+
+            List<String> result = readOnlyQueries.fetchStateless(JPAExpressions
+                    .select(member.username)
+                    .from(member)
+                    .where(member.age.goe(20))
+                    .orderBy(member.username.asc()));
+
+            assertThat(result).containsExactly("member2", "member3");
+            status.setRollbackOnly();
+        });
+    }
+}
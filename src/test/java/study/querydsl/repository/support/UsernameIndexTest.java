@@ -0,0 +1,215 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.repository.MemberRepository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QMember.member;
+
+// 인덱스는 커밋 후에 반영되므로 데이터를 커밋해 둔다.
+@SpringBootTest
+class UsernameIndexTest {
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    UsernameIndex usernameIndex;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    BulkOperations bulkOperations;
+    @Autowired
+    JPAQueryFactory queryFactory;
+
+    TransactionTemplate tx;
+
+    @BeforeEach
+    void before() {
+        tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            em.createQuery("delete from Member").executeUpdate();
+            em.createQuery("delete from Team").executeUpdate();
+            Team teamA = new Team("teamA");
+            em.persist(teamA);
+            em.persist(new Member("Kim Younghan", 10, teamA));
+            em.persist(new Member("kimchi", 20, teamA));
+            em.persist(new Member("lee", 30));
+            em.persist(new Member("ab", 40));
+        });
+        usernameIndex.invalidate(); // 다른 테스트가 벌크 JPQL 로 지운 회원이 남아 있을 수 있다.
+    }
+
+    @AfterEach
+    void after() {
+        tx.executeWithoutResult(status -> {
+            em.createQuery("delete from Member").executeUpdate();
+            em.createQuery("delete from Team").executeUpdate();
+        });
+        usernameIndex.invalidate();
+    }
+
+    @Test
+    void searchMatchesLike() {
+        assertThat(usernames(memberRepository.searchByUsernameContaining("KIM"))).containsExactly("Kim Younghan", "kimchi");
+        assertThat(usernames(memberRepository.searchByUsernameContaining("younghan"))).containsExactly("Kim Younghan");
+        assertThat(memberRepository.searchByUsernameContaining("park")).isEmpty();
+        // 인덱스를 쓸 수 없는 짧은 검색어는 like
+        assertThat(usernames(memberRepository.searchByUsernameContaining("i"))).containsExactly("Kim Younghan", "kimchi");
+    }
+
+    @Test
+    void persistAndUpdateAreIndexedAfterCommit() {
+        usernameIndex.rebuild();
+        Long id = tx.execute(status -> {
+            Member park = new Member("park", 50);
+            em.persist(park);
+            return park.getId();
+        });
+        assertThat(usernameIndex.find("par")).hasValue(List.of(id));
+
+        tx.executeWithoutResult(status -> em.find(Member.class, id).setUsername("choi"));
+        assertThat(usernameIndex.find("par")).hasValue(List.of());
+        assertThat(usernameIndex.find("cho")).hasValue(List.of(id));
+
+        tx.executeWithoutResult(status -> em.remove(em.find(Member.class, id)));
+        assertThat(usernameIndex.find("cho")).hasValue(List.of());
+    }
+
+    @Test
+    void rolledBackChangesAreNotIndexed() {
+        usernameIndex.rebuild();
+        tx.executeWithoutResult(status -> {
+            em.persist(new Member("rollback", 1));
+            em.flush();
+            status.setRollbackOnly();
+        });
+
+        assertThat(usernameIndex.find("rollback")).hasValue(List.of());
+    }
+
+    @Test
+    void bulkUpdateRebuildsIndex() {
+        usernameIndex.rebuild();
+        tx.executeWithoutResult(status ->
+                bulkOperations.update(member, member.age.lt(25), c -> c.set(member.username, "비회원")));
+
+        assertThat(usernameIndex.find("kim")).isEmpty(); // 다시 만드는 중 -> like
+        usernameIndex.rebuild();
+        assertThat(usernameIndex.find("kim")).hasValue(List.of());
+        assertThat(usernames(memberRepository.searchByUsernameContaining("비회원"))).hasSize(2);
+    }
+
+    // BulkOperations 를 거치지 않은 queryFactory.update/delete 도 인덱스를 다시 만들게 한다.
+    @Test
+    void queryFactoryBulkClausesInvalidateIndex() {
+        usernameIndex.rebuild();
+        tx.executeWithoutResult(status -> queryFactory
+                .update(member)
+                .set(member.username, "parklee")
+                .where(member.username.eq("lee"))
+                .execute());
+        assertThat(usernames(memberRepository.searchByUsernameContaining("park"))).containsExactly("parklee");
+
+        tx.executeWithoutResult(status -> queryFactory.delete(member).where(member.username.eq("parklee")).execute());
+        assertThat(memberRepository.searchByUsernameContaining("park")).isEmpty();
+    }
+
+    // 커밋 전의 자기 변경은 인덱스에 없으므로 like 로 찾는다.
+    @Test
+    void uncommittedChangesAreFoundInSameTransaction() {
+        usernameIndex.rebuild();
+        tx.executeWithoutResult(status -> {
+            em.persist(new Member("parker", 60)); // flush 전
+            assertThat(usernames(memberRepository.searchByUsernameContaining("park"))).containsExactly("parker");
+
+            queryFactory.update(member).set(member.username, "kimlee").where(member.username.eq("lee")).execute();
+            assertThat(usernames(memberRepository.searchByUsernameContaining("mle"))).containsExactly("kimlee");
+            status.setRollbackOnly();
+        });
+
+        assertThat(memberRepository.searchByUsernameContaining("park")).isEmpty();
+        assertThat(memberRepository.searchByUsernameContaining("mle")).isEmpty();
+    }
+
+    // 백그라운드에서 인덱스를 읽은 뒤 커밋 전에 멈춰 두고, 그 사이 DB 변경 + invalidate() 가 일어나는 경우
+    @Test
+    void searchDuringRebuildFallsBackAndInvalidateForcesAnotherRebuild() throws Exception {
+        CountDownLatch loaded = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        UsernameIndex index = new UsernameIndex(queryFactory, new PausingTransactionManager(transactionManager, loaded, release));
+        try {
+            assertThat(index.find("kim")).isEmpty(); // 기다리지 않고 like 로 넘긴다.
+            assertThat(loaded.await(10, TimeUnit.SECONDS)).isTrue();
+
+            // 인덱스 리스너를 거치지 않는 변경 (네이티브 SQL, 다른 인스턴스 등)
+            tx.executeWithoutResult(status -> em.createQuery("update Member m set m.username = 'kimlee' where m.username = 'lee'")
+                    .executeUpdate());
+            index.invalidate();
+
+            // 만드는 중에 들어온 검색도 기다리지 않는다. (테스트 스레드가 멈추면 실패)
+            assertThat(index.find("kim")).isEmpty();
+
+            release.countDown();
+            // 읽는 도중 invalidate() 된 인덱스로는 답하지 않고, 다음 검색이 다시 만든 인덱스로 답한다.
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            Optional<List<Long>> found = index.find("kim");
+            while (found.isEmpty() && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+                found = index.find("kim");
+            }
+            assertThat(found).hasValueSatisfying(ids -> assertThat(ids).hasSize(3));
+        } finally {
+            release.countDown();
+            index.destroy();
+        }
+    }
+
+    private static List<String> usernames(List<Member> members) {
+        return members.stream().map(Member::getUsername).toList();
+    }
+
+    // 처음 트랜잭션의 커밋을 release 될 때까지 미룬다.
+    private record PausingTransactionManager(PlatformTransactionManager delegate, CountDownLatch loaded,
+                                             CountDownLatch release) implements PlatformTransactionManager {
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return delegate.getTransaction(definition);
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+            loaded.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            delegate.commit(status);
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+            delegate.rollback(status);
+        }
+    }
+}
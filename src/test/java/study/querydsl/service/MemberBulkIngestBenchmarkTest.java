@@ -0,0 +1,85 @@
+package study.querydsl.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberIngestRow;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * 건건이 insert vs 배치 insert 비교
+ * ./gradlew performanceTest -Dperf.members=1000000
+ */
+@Tag("performance")
+@ActiveProfiles("perf")
+@SpringBootTest
+@Transactional
+class MemberBulkIngestBenchmarkTest {
+
+    static final int MEMBERS = Integer.getInteger("perf.members", 100_000);
+    static final int ROW_BY_ROW_MEMBERS = Math.min(MEMBERS, 10_000); // 너무 느려서 일부만 측정
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    EntityManagerFactory emf;
+    @Autowired
+    MemberBulkIngestService memberBulkIngestService;
+
+    @Test
+    void rowByRowVsBatch() {
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        // before() 방식: 한 건씩 persist + flush, jdbc batch 미사용
+        em.unwrap(Session.class).setJdbcBatchSize(1);
+        Team team = new Team("rowByRow");
+        em.persist(team);
+        statistics.clear();
+        long start = System.nanoTime();
+        for (int i = 0; i < ROW_BY_ROW_MEMBERS; i++) {
+            em.persist(new Member("row" + i, i % 100, team));
+            em.flush();
+        }
+        report("row-by-row", ROW_BY_ROW_MEMBERS, System.nanoTime() - start, statistics);
+        em.unwrap(Session.class).setJdbcBatchSize(null);
+        em.clear();
+
+        statistics.clear();
+        start = System.nanoTime();
+        long count = memberBulkIngestService.ingest(rows());
+        report("bulk ingest", count, System.nanoTime() - start, statistics);
+
+        assertThat(count).isEqualTo(MEMBERS);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(MEMBERS + 10L); // 회원 + 새 팀 10개
+        // batch(100건)마다 insert 를 다시 prepare + pooled-lo 시퀀스 호출 100건당 1번, 팀 조회/insert/시퀀스 몇 번
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2L * MEMBERS / 100 + 20);
+        statistics.setStatisticsEnabled(false);
+    }
+
+    private Stream<MemberIngestRow> rows() {
+        return IntStream.range(0, MEMBERS)
+                .mapToObj(i -> new MemberIngestRow("bulk" + i, i % 100, "team" + i % 10));
+    }
+
+    private void report(String name, long rows, long elapsedNanos, Statistics statistics) {
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        System.out.printf("%-12s rows = %,d, %.2f s, %,.0f rows/s, prepared statements = %,d, entity inserts = %,d%n",
+                name, rows, seconds, rows / seconds,
+                statistics.getPrepareStatementCount(), statistics.getEntityInsertCount());
+    }
+}
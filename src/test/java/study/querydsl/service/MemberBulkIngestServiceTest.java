@@ -0,0 +1,77 @@
+package study.querydsl.service;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberIngestRow;
+import study.querydsl.entity.Team;
+import study.querydsl.monitoring.NPlusOneProperties;
+import study.querydsl.monitoring.QueryCounter;
+import study.querydsl.monitoring.QueryScope;
+
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+@SpringBootTest
+@Transactional
+class MemberBulkIngestServiceTest {
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    MemberBulkIngestService memberBulkIngestService;
+    @Autowired
+    QueryCounter queryCounter;
+    @Autowired
+    NPlusOneProperties nPlusOneProperties;
+
+    @Test
+    void ingest() {
+        em.createQuery("delete from Member").executeUpdate();
+        em.createQuery("delete from Team").executeUpdate();
+        em.persist(new Team("teamA")); // 기존 팀은 재사용
+
+        long count = memberBulkIngestService.ingest(Stream.concat(
+                Stream.of(new MemberIngestRow("memberA", 10, "teamA")),
+                IntStream.range(0, 2_500)
+                        .mapToObj(i -> new MemberIngestRow("member" + i, i % 50, i % 3 == 0 ? null : "team" + (char) ('A' + i % 3)))));
+
+        assertThat(count).isEqualTo(2_501);
+
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+        List<Tuple> result = queryFactory
+                .select(team.name, member.count())
+                .from(member)
+                .leftJoin(member.team, team)
+                .groupBy(team.name)
+                .orderBy(team.name.asc().nullsFirst())
+                .fetch();
+
+        assertThat(result).extracting(t -> t.get(team.name)).containsExactly(null, "teamA", "teamB", "teamC");
+        assertThat(result).extracting(t -> t.get(member.count())).containsExactly(834L, 1L, 833L, 833L);
+        assertThat(queryFactory.selectFrom(team).fetch()).hasSize(3); // teamA 를 새로 만들지 않았다.
+    }
+
+    // insert batch, 시퀀스 조회가 반복되는 것은 N+1 이 아니다.
+    @Test
+    void ingestIsNotReportedAsNPlusOne() {
+        em.createQuery("delete from Member").executeUpdate();
+
+        try (QueryScope scope = queryCounter.open("ingest")) {
+            memberBulkIngestService.ingest(IntStream.range(0, 1_000)
+                    .mapToObj(i -> new MemberIngestRow("member" + i, i % 50, null)));
+
+            assertThat(scope.getStatementCount()).isGreaterThan(nPlusOneProperties.getThreshold());
+            assertThat(scope.repeatedShapes(nPlusOneProperties.getThreshold())).isEmpty();
+        }
+    }
+}
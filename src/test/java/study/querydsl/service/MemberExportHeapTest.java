@@ -0,0 +1,110 @@
+package study.querydsl.service;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberDto;
+import study.querydsl.dto.QMemberDto;
+import study.querydsl.entity.Member;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QMember.member;
+
+/*
+ * 스트리밍 export 중 힙 사용량이 회원 수에 비례해서 늘지 않는지 확인
+ * ./gradlew performanceTest -Dperf.members=200000
+ */
+@Tag("performance")
+@ActiveProfiles("perf")
+@SpringBootTest
+@Transactional
+class MemberExportHeapTest {
+
+    static final int MEMBERS = Integer.getInteger("perf.members", 200_000);
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    JPAQueryFactory queryFactory;
+    @Autowired
+    MemberExportService memberExportService;
+
+    @BeforeEach
+    void before() {
+        for (int i = 0; i < MEMBERS; i++) {
+            em.persist(new Member(String.format("member%07d", i), i % 100));
+            if (i % 1_000 == 0) {
+                em.flush();
+                em.clear();
+            }
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void heapStaysFlat() {
+        HeapSamplingOutputStream out = new HeapSamplingOutputStream(MEMBERS / 10);
+        long count = memberExportService.exportNdjson(out);
+        long streamingGrowth = out.maxUsed - out.firstUsed;
+
+        // 비교: fetch()로 전부 올리는 경우
+        long before = usedHeapAfterGc();
+        List<MemberDto> all = queryFactory
+                .select(new QMemberDto(member.username, member.age))
+                .from(member)
+                .fetch();
+        long materializedGrowth = usedHeapAfterGc() - before;
+
+        System.out.printf("rows = %d, streaming heap growth = %,d bytes, fetch() heap growth = %,d bytes%n",
+                count, streamingGrowth, materializedGrowth);
+
+        assertThat(count).isEqualTo(MEMBERS);
+        assertThat(all).hasSize(MEMBERS);
+        assertThat(streamingGrowth).isLessThan(materializedGrowth / 2);
+    }
+
+    static long usedHeapAfterGc() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    // 출력은 버리고 interval 행마다 GC 후 힙 사용량을 기록한다.
+    static class HeapSamplingOutputStream extends OutputStream {
+
+        private final long interval;
+        private long rows;
+        long firstUsed = -1;
+        long maxUsed;
+
+        HeapSamplingOutputStream(long interval) {
+            this.interval = interval;
+        }
+
+        @Override
+        public void write(int b) {
+            if (b == '\n' && ++rows % interval == 0) {
+                long used = usedHeapAfterGc();
+                if (firstUsed < 0) {
+                    firstUsed = used;
+                }
+                maxUsed = Math.max(maxUsed, used);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            // 행 구분자('\n')는 write(int)로 들어온다.
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package study.querydsl.service;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.MemberExportResult;
+import study.querydsl.dto.MemberIngestRow;
+import study.querydsl.service.MemberPartitionedExportService.Format;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * 워커 수에 따른 export 처리량 (rows/s)
+ * ./gradlew performanceTest -Dperf.members=1000000 -Dperf.export.workers=1,2,4,8
+ * 워커 수는 커넥션 풀 크기(hikari 기본 10)를 넘기지 않는다.
+ */
+@Tag("performance")
+@ActiveProfiles("perf")
+@SpringBootTest
+class MemberPartitionedExportBenchmarkTest {
+
+    static final int MEMBERS = Integer.getInteger("perf.members", 100_000);
+    static final int[] WORKERS = Arrays.stream(System.getProperty("perf.export.workers", "1,2,4,8").split(","))
+            .map(String::trim)
+            .mapToInt(Integer::parseInt)
+            .toArray();
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    MemberBulkIngestService memberBulkIngestService;
+    @Autowired
+    MemberPartitionedExportService exportService;
+
+    @TempDir
+    Path dir;
+
+    @AfterEach
+    void after() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            em.createQuery("delete from Member").executeUpdate();
+            em.createQuery("delete from Team").executeUpdate();
+        });
+    }
+
+    @Test
+    void scalingByWorkers() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> memberBulkIngestService
+                .ingest(IntStream.range(0, MEMBERS)
+                        .mapToObj(i -> new MemberIngestRow("member" + i, i % 100, "team" + i % 10))));
+
+        exportService.exportShards(dir.resolve("warmup"), Format.CSV, WORKERS[WORKERS.length - 1]);
+
+        double baseline = 0;
+        for (int workers : WORKERS) {
+            for (Format format : Format.values()) {
+                MemberExportResult shards = exportService.exportShards(dir.resolve("shards-" + workers + "-" + format), format, workers);
+                MemberExportResult merged = exportService.exportMerged(dir.resolve("merged-" + workers + "." + format), format, workers);
+                assertThat(shards.getRows()).isEqualTo(MEMBERS);
+                assertThat(merged.getRows()).isEqualTo(MEMBERS);
+
+                if (format == Format.CSV && baseline == 0) {
+                    baseline = shards.getRowsPerSecond();
+                }
+                System.out.printf("workers = %d, %-6s shards = %,.0f rows/s%s, merged = %,.0f rows/s%n",
+                        workers, format, shards.getRowsPerSecond(),
+                        format == Format.CSV ? " (x%.2f)".formatted(shards.getRowsPerSecond() / baseline) : "",
+                        merged.getRowsPerSecond());
+            }
+        }
+    }
+}
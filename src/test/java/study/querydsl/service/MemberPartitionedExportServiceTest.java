@@ -0,0 +1,135 @@
+package study.querydsl.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.MemberExportResult;
+import study.querydsl.dto.MemberIngestRow;
+import study.querydsl.service.MemberPartitionedExportService.Format;
+import study.querydsl.service.MemberPartitionedExportService.IdRange;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// 범위마다 다른 스레드의 트랜잭션에서 조회하므로 데이터를 커밋해 둔다.
+@SpringBootTest
+class MemberPartitionedExportServiceTest {
+
+    static final int ROWS = 5_000;
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    MemberBulkIngestService memberBulkIngestService;
+    @Autowired
+    MemberPartitionedExportService exportService;
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @TempDir
+    Path dir;
+
+    TransactionTemplate tx;
+
+    @BeforeEach
+    void before() {
+        tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            em.createQuery("delete from Member").executeUpdate();
+            em.createQuery("delete from Team").executeUpdate();
+            // 10건 중 1건은 팀 없음, username 에 쉼표/따옴표가 들어간 회원 하나
+            memberBulkIngestService.ingest(IntStream.range(0, ROWS)
+                    .mapToObj(i -> new MemberIngestRow(i == 7 ? "kim, \"jr\"" : "member" + i, i % 100,
+                            i % 10 == 0 ? null : "team" + i % 5)));
+        });
+    }
+
+    @AfterEach
+    void after() {
+        tx.executeWithoutResult(status -> {
+            em.createQuery("delete from Member").executeUpdate();
+            em.createQuery("delete from Team").executeUpdate();
+        });
+    }
+
+    @Test
+    void exportShards() throws IOException {
+        MemberExportResult result = exportService.exportShards(dir.resolve("shards"), Format.CSV, 3);
+
+        assertThat(result.getRows()).isEqualTo(ROWS);
+        assertThat(result.getFiles()).hasSize(result.getPartitions());
+
+        List<String> rows = new ArrayList<>();
+        for (Path shard : result.getFiles()) {
+            List<String> lines = Files.readAllLines(shard, StandardCharsets.UTF_8);
+            assertThat(lines.get(0)).isEqualTo("memberId,username,age,teamId,teamName");
+            rows.addAll(lines.subList(1, lines.size()));
+        }
+        assertThat(rows).hasSize(ROWS);
+        assertThat(rows).anyMatch(row -> row.contains(",\"kim, \"\"jr\"\"\",7,"));
+        assertThat(rows).anyMatch(row -> row.endsWith(",member10,10,,"));
+    }
+
+    @Test
+    void exportMerged() throws IOException {
+        Path file = dir.resolve("members.ndjson");
+        MemberExportResult result = exportService.exportMerged(file, Format.NDJSON, 4);
+
+        assertThat(result.getRows()).isEqualTo(ROWS);
+        assertThat(result.getFiles()).containsExactly(file);
+        assertThat(Files.list(dir)).containsExactly(file); // 샤드는 지운다.
+
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertThat(lines).hasSize(ROWS);
+        long previousId = 0;
+        for (String line : lines) { // 범위 순서대로 이어 붙이므로 전체가 member_id 순
+            JsonNode row = objectMapper.readTree(line);
+            assertThat(row.get("memberId").asLong()).isGreaterThan(previousId);
+            previousId = row.get("memberId").asLong();
+        }
+    }
+
+    @Test
+    void mergedCsvHasSingleHeader() throws IOException {
+        Path file = dir.resolve("members.csv");
+        exportService.exportMerged(file, Format.CSV, 2);
+
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertThat(lines).hasSize(ROWS + 1);
+        assertThat(lines).filteredOn(line -> line.startsWith("memberId,")).hasSize(1);
+    }
+
+    // 범위마다 커넥션을 쥐므로 커넥션 풀을 다 쓸 만큼의 워커는 받지 않는다.
+    @Test
+    void workersAboveMaxWorkersAreRejected() {
+        assertThatThrownBy(() -> exportService.exportShards(dir.resolve("too-many"), Format.CSV, 9)) // max-workers 8
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("querydsl.export.max-workers");
+    }
+
+    @Test
+    void split() {
+        assertThat(MemberPartitionedExportService.split(1, 10, 3))
+                .containsExactly(new IdRange(1, 5), new IdRange(5, 9), new IdRange(9, 11));
+        assertThat(MemberPartitionedExportService.split(5, 6, 8)) // id 보다 범위가 많으면 id 수만큼
+                .containsExactly(new IdRange(5, 6), new IdRange(6, 7));
+    }
+}
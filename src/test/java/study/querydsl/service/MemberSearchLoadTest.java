@@ -0,0 +1,145 @@
+package study.querydsl.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.repository.MemberRepository;
+import study.querydsl.repository.MemberStatsRepository;
+import study.querydsl.repository.support.ConcurrentQueryExecutor;
+import study.querydsl.repository.support.ConcurrentQueryProperties;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * 순차 실행 vs 동시 실행 (content + count + 팀 평균)
+ * 클라이언트 스레드를 커넥션 풀 크기(기본 10)보다 많이 띄워서 풀이 포화된 상태에서도
+ * 타임아웃 없이 끝나는지, 지연 시간이 어떻게 변하는지 본다.
+ * ./gradlew performanceTest -Dperf.members=100000 -Dperf.clients=32
+ */
+@Tag("performance")
+@ActiveProfiles("perf")
+@SpringBootTest
+class MemberSearchLoadTest {
+
+    static final int MEMBERS = Integer.getInteger("perf.members", 100_000);
+    static final int CLIENTS = Integer.getInteger("perf.clients", 32);
+    static final int REQUESTS_PER_CLIENT = 20;
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    MemberStatsRepository memberStatsRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    CacheManager cacheManager;
+    @Autowired
+    DataSource dataSource;
+
+    TransactionTemplate tx;
+
+    @BeforeEach
+    void before() {
+        tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            Team[] teams = new Team[10];
+            for (int i = 0; i < teams.length; i++) {
+                teams[i] = new Team("team" + i);
+                em.persist(teams[i]);
+            }
+            for (int i = 0; i < MEMBERS; i++) {
+                em.persist(new Member(String.format("member%07d", i), i % 100, teams[i % teams.length]));
+                if (i % 1_000 == 0) {
+                    em.flush();
+                    em.clear();
+                }
+            }
+        });
+    }
+
+    @AfterEach
+    void after() {
+        tx.executeWithoutResult(status -> {
+            em.createQuery("delete from Member").executeUpdate();
+            em.createQuery("delete from Team").executeUpdate();
+        });
+    }
+
+    @Test
+    void serialVsConcurrent() throws Exception {
+        int poolSize = ((HikariDataSource) dataSource).getMaximumPoolSize();
+        System.out.printf("pool size = %d, clients = %d%n", poolSize, CLIENTS);
+
+        run("serial", new ConcurrentQueryProperties());
+
+        ConcurrentQueryProperties concurrent = new ConcurrentQueryProperties();
+        concurrent.setEnabled(true);
+        concurrent.setMaxConcurrency(Math.max(1, poolSize / 2));
+        run("concurrent", concurrent);
+    }
+
+    private void run(String name, ConcurrentQueryProperties properties) throws Exception {
+        ConcurrentQueryExecutor executor = new ConcurrentQueryExecutor(properties, transactionManager);
+        MemberSearchService service = new MemberSearchService(memberRepository, memberStatsRepository, executor);
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(10);
+        condition.setAgeLoe(80);
+
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int c = 0; c < CLIENTS; c++) {
+                futures.add(clients.submit(() -> {
+                    long[] elapsed = new long[REQUESTS_PER_CLIENT];
+                    for (int i = 0; i < REQUESTS_PER_CLIENT; i++) {
+                        // 집계는 캐시되므로 매 요청마다 비워서 실제 쿼리가 나가게 한다.
+                        cacheManager.getCache("teamAgeAverages").clear();
+                        long start = System.nanoTime();
+                        service.search(condition, PageRequest.of(i, 20));
+                        elapsed[i] = System.nanoTime() - start;
+                    }
+                    return elapsed;
+                }));
+            }
+
+            long[] all = new long[CLIENTS * REQUESTS_PER_CLIENT];
+            int n = 0;
+            for (Future<long[]> future : futures) {
+                for (long e : future.get(5, TimeUnit.MINUTES)) {
+                    all[n++] = e;
+                }
+            }
+            Arrays.sort(all);
+            assertThat(n).isEqualTo(all.length);
+            System.out.printf("%-10s p50 = %8.3f ms, p99 = %8.3f ms, max = %8.3f ms%n", name,
+                    all[n / 2] / 1_000_000.0, all[n * 99 / 100] / 1_000_000.0, all[n - 1] / 1_000_000.0);
+        } finally {
+            clients.shutdown();
+            executor.destroy();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package study.querydsl.service;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberSearchResult;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.repository.MemberRepository;
+import study.querydsl.repository.MemberStatsRepository;
+import study.querydsl.repository.support.ConcurrentQueryExecutor;
+import study.querydsl.repository.support.ConcurrentQueryProperties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 쿼리들이 각자 다른 스레드의 트랜잭션에서 실행되므로 데이터를 커밋해 둔다.
+@SpringBootTest
+class MemberSearchServiceTest {
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    MemberStatsRepository memberStatsRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    CacheManager cacheManager;
+
+    TransactionTemplate tx;
+    ConcurrentQueryExecutor executor;
+
+    @BeforeEach
+    void before() {
+        tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            em.createQuery("delete from Member").executeUpdate();
+            em.createQuery("delete from Team").executeUpdate();
+            Team teamA = new Team("teamA");
+            Team teamB = new Team("teamB");
+            em.persist(teamA);
+            em.persist(teamB);
+            for (int i = 0; i < 10; i++) {
+                em.persist(new Member("member" + i, i * 10, i % 2 == 0 ? teamA : teamB));
+            }
+        });
+        // 다른 테스트가 남긴 팀 평균 캐시를 비운다.
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+
+        // 기본 설정은 비활성이므로 활성화한 실행기를 직접 만든다.
+        ConcurrentQueryProperties properties = new ConcurrentQueryProperties();
+        properties.setEnabled(true);
+        properties.setMaxConcurrency(2);
+        executor = new ConcurrentQueryExecutor(properties, transactionManager);
+    }
+
+    @AfterEach
+    void after() {
+        executor.destroy();
+        tx.executeWithoutResult(status -> {
+            em.createQuery("delete from Member").executeUpdate();
+            em.createQuery("delete from Team").executeUpdate();
+        });
+    }
+
+    @Test
+    void concurrentSearch() {
+        MemberSearchService service = new MemberSearchService(memberRepository, memberStatsRepository, executor);
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(20);
+
+        MemberSearchResult result = service.search(condition, PageRequest.of(0, 3));
+
+        assertThat(executor.isConcurrent()).isTrue();
+        assertThat(result.getPage().getContent()).extracting("username")
+                .containsExactly("member2", "member3", "member4");
+        assertThat(result.getPage().getTotalElements()).isEqualTo(8);
+        assertThat(result.getTeamAgeAverages()).extracting("teamName").containsExactly("teamA", "teamB");
+    }
+
+    @Test
+    void runsOnCallerThreadInsideTransaction() {
+        Thread caller = Thread.currentThread();
+
+        Thread executed = tx.execute(status ->
+                ConcurrentQueryExecutor.join(executor.submit(Thread::currentThread)));
+
+        assertThat(executed).isSameAs(caller);
+    }
+}
@@ -0,0 +1,141 @@
+package study.querydsl.service;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberIngestRow;
+import study.querydsl.dto.MemberSyncResult;
+import study.querydsl.entity.Member;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+@SpringBootTest
+@Transactional
+class MemberSyncServiceTest {
+
+    static final int ROWS = 20_000;
+    static final int TEAMS = 50;
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    JPAQueryFactory queryFactory;
+    @Autowired
+    MemberSyncService memberSyncService;
+
+    @TempDir
+    Path dir;
+
+    @BeforeEach
+    void before() {
+        em.createQuery("delete from Member").executeUpdate();
+        em.createQuery("delete from Team").executeUpdate();
+    }
+
+    @Test
+    void syncFromFile() throws IOException {
+        MemberSyncResult first = memberSyncService.sync(writeFeed("first.csv", 0, ROWS, 0));
+        System.out.println("first sync = " + first + ", rows/s = " + Math.round(first.getRowsPerSecond()));
+
+        assertThat(first.getInserted()).isEqualTo(ROWS);
+        assertThat(first.getTeamsInserted()).isEqualTo(TEAMS);
+        assertThat(count()).isEqualTo(ROWS);
+
+        // 절반은 기존 회원(나이 변경), 절반은 신규
+        MemberSyncResult second = memberSyncService.sync(writeFeed("second.csv", ROWS / 2, ROWS + ROWS / 2, 1));
+        System.out.println("second sync = " + second + ", rows/s = " + Math.round(second.getRowsPerSecond()));
+
+        assertThat(second.getInserted()).isEqualTo(ROWS / 2);
+        assertThat(second.getUpdated()).isEqualTo(ROWS / 2);
+        assertThat(second.getTeamsInserted()).isZero();
+        assertThat(count()).isEqualTo(ROWS + ROWS / 2);
+        assertThat(queryFactory.select(team.count()).from(team).fetchOne()).isEqualTo(TEAMS);
+
+        int i = ROWS / 2 + 1;
+        Member updated = queryFactory.selectFrom(member).where(member.username.eq(username(i))).fetchOne();
+        assertThat(updated.getAge()).isEqualTo((i + 1) % 100);
+        assertThat(updated.getTeam().getName()).isEqualTo("team" + i % TEAMS);
+        assertThat(queryFactory.selectFrom(member).where(member.username.eq(username(0))).fetchOne().getTeam())
+                .isNull();
+
+        // 동기화가 받아 간 id 와 JPA 가 받는 id 가 겹치지 않아야 한다.
+        em.persist(new Member("afterSync", 1));
+        em.flush();
+    }
+
+    // 같은 배치 안의 중복 username 은 한 행으로 합쳐지므로 갱신 수에 넣지 않는다.
+    @Test
+    void duplicateUsernamesInBatchAreNotCountedAsUpdates() {
+        em.persist(new Member("existing", 1));
+        em.flush();
+
+        MemberSyncResult result = memberSyncService.sync(Stream.of(
+                new MemberIngestRow("new", 10, null),
+                new MemberIngestRow("new", 11, null),
+                new MemberIngestRow("existing", 20, null),
+                new MemberIngestRow("existing", 21, null)));
+
+        assertThat(result.getRows()).isEqualTo(4);
+        assertThat(result.getInserted()).isEqualTo(1);
+        assertThat(result.getUpdated()).isEqualTo(1);
+        assertThat(count()).isEqualTo(2);
+        assertThat(queryFactory.select(member.age).from(member).orderBy(member.username.asc()).fetch())
+                .containsExactly(21, 11); // 마지막 행이 이긴다.
+    }
+
+    // 호출한 트랜잭션의 flush 되지 않은 persist, 이미 로딩된 회원과 맞춘다.
+    @Test
+    void syncsWithPersistenceContext() {
+        Member loaded = new Member("loaded", 1);
+        em.persist(loaded);
+        em.flush();
+        em.persist(new Member("pending", 1)); // flush 전
+
+        MemberSyncResult result = memberSyncService.sync(Stream.of(
+                new MemberIngestRow("pending", 10, null),
+                new MemberIngestRow("loaded", 20, "teamA")));
+
+        assertThat(result.getInserted()).isZero();
+        assertThat(result.getUpdated()).isEqualTo(2);
+        assertThat(count()).isEqualTo(2); // pending 이 중복 insert 되지 않았다.
+        Member reloaded = em.find(Member.class, loaded.getId());
+        assertThat(reloaded.getAge()).isEqualTo(20);
+        assertThat(reloaded.getTeam().getName()).isEqualTo("teamA");
+    }
+
+    private long count() {
+        em.clear();
+        return queryFactory.select(member.count()).from(member).fetchOne();
+    }
+
+    // 100 번째 회원마다 팀 없음
+    private Path writeFeed(String name, int from, int to, int ageOffset) throws IOException {
+        Path file = dir.resolve(name);
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int i = from; i < to; i++) {
+                String teamName = i % 100 == 0 ? "" : "team" + i % TEAMS;
+                writer.write(username(i) + "," + (i + ageOffset) % 100 + "," + teamName);
+                writer.newLine();
+            }
+        }
+        return file;
+    }
+
+    private static String username(int i) {
+        return String.format("sync%07d", i);
+    }
+}